@@ -0,0 +1,10 @@
+package com.compression;
+
+/**
+ * Accès direct au i-ème élément, lié une fois pour toutes à une trame
+ * (largeur, masques et décalages déjà calculés). Voir Accesseurs.
+ */
+@FunctionalInterface
+public interface Accesseur {
+    int get(int i);
+}
@@ -0,0 +1,153 @@
+package com.compression;
+
+/**
+ * Accesseurs get(i) spécialisés selon la largeur au chargement d'une trame.
+ *
+ * Masques, décalages et réciproques sont calculés une seule fois et rangés dans des champs
+ * final : le chemin get(i) ne contient ni division ni branche. Une seule classe par type
+ * de codec, la variante étant portée par ces champs : un point d'appel reste monomorphe
+ * pour un type donné (bimorphe ou trimorphe si les types sont mélangés), donc inlinable par C2.
+ */
+final class Accesseurs {
+
+    private Accesseurs() {}
+
+    static int masque(int largeur) {
+        return (largeur >= 32) ? -1 : (1 << largeur) - 1;
+    }
+
+    /** Sans chevauchement : valeursParInt = 32 / k valeurs par int. */
+    static Sans sansChevauchement(int[] mots, int debut, int k) {
+        return new Sans(mots, debut, k);
+    }
+
+    /**
+     * Avec chevauchement : lecture des deux mots voisins dans un long, valable pour tout k
+     * (si k divise 32, le second mot est simplement ignoré par le masque).
+     * fin = indice (exclu) du dernier mot de payload.
+     */
+    static Avec avecChevauchement(int[] mots, int debut, int fin, int k) {
+        return new Avec(mots, debut, fin, k);
+    }
+
+    /**
+     * Avec débordement : champs de largeurChamp bits dans [debut, fin),
+     * zone compactée de lenOverflow écarts à `seuil` (largeurDebordement bits) dans zone[debutZone, finZone).
+     */
+    static Debordement avecDebordement(int[] mots, int debut, int fin, int largeurChamp, int innerWidth,
+                                       int[] zone, int debutZone, int finZone, int lenOverflow,
+                                       int largeurDebordement, int seuil) {
+        return new Debordement(mots, debut, fin, largeurChamp, innerWidth,
+                zone, debutZone, finZone, lenOverflow, largeurDebordement, seuil);
+    }
+
+    // Lit 64 bits à partir du mot idx ; le second mot est borné (cmov, pas de branche)
+    // car une valeur ne dépasse jamais le dernier mot de payload.
+    private static long deuxMots(int[] mots, int idx, int dernier) {
+        return (mots[idx] & 0xFFFFFFFFL) | ((long) mots[Math.min(idx + 1, dernier)] << 32);
+    }
+
+    /**
+     * La division par valeursParInt est remplacée par une multiplication-décalage ;
+     * pour une puissance de deux, le multiplicateur 2^31 + 1 revient à un simple décalage.
+     */
+    static final class Sans implements Accesseur {
+        private final int[] mots;
+        private final int debut;
+        private final int k;
+        private final int mask;
+        private final int valeursParInt;
+        private final long multiplicateur;
+        private final int decalage;
+
+        Sans(int[] mots, int debut, int k) {
+            this.mots = mots;
+            this.debut = debut;
+            this.k = k;
+            this.mask = masque(k);
+            this.valeursParInt = 32 / k;
+            // i / d == (i * m) >>> (31 + l) pour tout 0 <= i < 2^31, avec l = ceil(log2 d)
+            int l = 32 - Integer.numberOfLeadingZeros(valeursParInt - 1);
+            this.decalage = 31 + l;
+            this.multiplicateur = (1L << decalage) / valeursParInt + 1;
+        }
+
+        @Override
+        public int get(int i) {
+            int index = (int) ((i * multiplicateur) >>> decalage);
+            int shift = (i - index * valeursParInt) * k;
+            return (mots[debut + index] >>> shift) & mask;
+        }
+    }
+
+    static final class Avec implements Accesseur {
+        private final int[] mots;
+        private final int debut;
+        private final int dernier;
+        private final int k;
+        private final int mask;
+
+        Avec(int[] mots, int debut, int fin, int k) {
+            this.mots = mots;
+            this.debut = debut;
+            this.dernier = fin - 1;
+            this.k = k;
+            this.mask = masque(k);
+        }
+
+        @Override
+        public int get(int i) {
+            int bitPos = i * k;
+            long w = deuxMots(mots, debut + (bitPos >>> 5), dernier);
+            return (int) (w >>> (bitPos & 31)) & mask;
+        }
+    }
+
+    static final class Debordement implements Accesseur {
+        private final int[] mots;
+        private final int debut;
+        private final int dernier;
+        private final int largeurChamp;
+        private final int innerWidth;
+        private final int innerMask;
+        private final int[] zone;
+        private final int debutZone;
+        private final int dernierZone;
+        private final int lenOverflow;
+        private final int largeurDebordement;
+        private final int maskDebordement;
+        private final int seuil;
+
+        Debordement(int[] mots, int debut, int fin, int largeurChamp, int innerWidth,
+                    int[] zone, int debutZone, int finZone, int lenOverflow, int largeurDebordement, int seuil) {
+            this.mots = mots;
+            this.debut = debut;
+            this.dernier = fin - 1;
+            this.largeurChamp = largeurChamp;
+            this.innerWidth = innerWidth;
+            this.innerMask = masque(innerWidth);
+            this.zone = zone;
+            this.debutZone = debutZone;
+            this.dernierZone = finZone - 1;
+            this.lenOverflow = lenOverflow;
+            this.largeurDebordement = largeurDebordement;
+            this.maskDebordement = masque(largeurDebordement);
+            this.seuil = seuil;
+        }
+
+        @Override
+        public int get(int i) {
+            int bitPos = i * largeurChamp;
+            long w = deuxMots(mots, debut + (bitPos >>> 5), dernier);
+            int champ = (int) (w >>> (bitPos & 31));
+            int contenu = champ & innerMask;
+            int indicateur = (champ >>> innerWidth) & 1;
+            if (indicateur == 1 && contenu < lenOverflow) {
+                int bitZone = contenu * largeurDebordement;
+                long z = deuxMots(zone, debutZone + (bitZone >>> 5), dernierZone);
+                return seuil + ((int) (z >>> (bitZone & 31)) & maskDebordement);
+            }
+            return contenu;
+        }
+    }
+}
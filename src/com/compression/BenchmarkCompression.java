@@ -15,6 +15,7 @@ public class BenchmarkCompression {
     private static final Random random = new Random(12345);
     private static final int WARMUP = 5;
     private static final int REPEAT = 50; // augmente si tu veux plus de stabilité
+    private static final int NB_ACCES = 1 << 20; // accès aléatoires par mesure de get(i)
 
     /**
      * Petit conteneur pour associer un libellé humain à un jeu de données.
@@ -67,9 +68,118 @@ public class BenchmarkCompression {
                 System.out.println();
             }
 
+            benchmarkCompacte(data);
+            System.out.println();
+
             System.out.println("============================================================\n");
             casIndex++;
         }
+
+        benchmarkAccesAleatoire();
+    }
+
+    /**
+     * Latence d'un get(i) aléatoire par largeur k :
+     * avant = logique get(i) d'origine (division, masque recalculé à chaque appel),
+     * après = accesseur spécialisé lié par Frames.view.
+     * Chaque variante est mesurée depuis sa propre méthode (son propre point d'appel),
+     * pour que le profil de types d'une mesure ne pollue pas les autres.
+     */
+    private static void benchmarkAccesAleatoire() {
+        System.out.println("=== LATENCE get(i) ALÉATOIRE PAR LARGEUR ===\n");
+        int n = 1 << 16;
+        int[] indices = genererTableauAleatoire(NB_ACCES, 0, n - 1);
+
+        for (TypeCompression type : List.of(TypeCompression.AVEC_CHEVAUCHEMENT, TypeCompression.SANS_CHEVAUCHEMENT)) {
+            System.out.println(">> Type : " + type);
+            System.out.println("  k | avant (ns/get) | après (ns/get)");
+            for (int k = 1; k <= 31; k++) {
+                int[] data = genererTableauAleatoire(n, 0, (1 << k) - 1);
+                data[0] = (1 << k) - 1; // force la largeur k
+                int[] trame = CompressionFactory.create(type).compresser(data);
+                int[] payload = Arrays.copyOfRange(trame, 5, trame.length);
+                Accesseur specialise = Frames.view(trame).accesseur();
+
+                long avant;
+                long apres;
+                if (type == TypeCompression.AVEC_CHEVAUCHEMENT) {
+                    avant = mesurerAvantAvec(payload, k, indices);
+                    apres = mesurerApresAvec(specialise, indices);
+                } else {
+                    avant = mesurerAvantSans(payload, k, indices);
+                    apres = mesurerApresSans(specialise, indices);
+                }
+                System.out.printf("%3d | %14.2f | %14.2f%n", k,
+                        (double) avant / NB_ACCES, (double) apres / NB_ACCES);
+            }
+            System.out.println();
+        }
+        System.out.println("(puits = " + puits + ")");
+    }
+
+    private static long puits; // empêche l'élimination des lectures par le JIT
+
+    // get(i) d'origine de CompressionAvecChevauchement, sur le payload seul
+    private static int getAvecOrigine(int[] donnees, int k, int i) {
+        int mask = (k >= 32) ? -1 : (1 << k) - 1;
+        int bitPos = i * k;
+        int index = bitPos / 32;
+        int offset = bitPos % 32;
+        int val = donnees[index] >>> offset;
+        if (offset + k > 32) {
+            val |= donnees[index + 1] << (32 - offset);
+        }
+        return val & mask;
+    }
+
+    // get(i) d'origine de CompressionSansChevauchement, sur le payload seul
+    private static int getSansOrigine(int[] donnees, int k, int i) {
+        int mask = (k >= 32) ? -1 : (1 << k) - 1;
+        int valeursParInt = 32 / k;
+        int index = i / valeursParInt;
+        int pos = i % valeursParInt;
+        return (donnees[index] >>> (pos * k)) & mask;
+    }
+
+    // Meilleur temps sur WARMUP passes ; une méthode par variante = un point d'appel par variante
+    private static long mesurerAvantAvec(int[] payload, int k, int[] indices) {
+        long meilleur = Long.MAX_VALUE;
+        for (int r = 0; r < WARMUP; r++) {
+            long t0 = System.nanoTime();
+            for (int idx : indices) puits += getAvecOrigine(payload, k, idx);
+            meilleur = Math.min(meilleur, System.nanoTime() - t0);
+        }
+        return meilleur;
+    }
+
+    private static long mesurerAvantSans(int[] payload, int k, int[] indices) {
+        long meilleur = Long.MAX_VALUE;
+        for (int r = 0; r < WARMUP; r++) {
+            long t0 = System.nanoTime();
+            for (int idx : indices) puits += getSansOrigine(payload, k, idx);
+            meilleur = Math.min(meilleur, System.nanoTime() - t0);
+        }
+        return meilleur;
+    }
+
+    private static long mesurerApresAvec(Accesseur accesseur, int[] indices) {
+        long meilleur = Long.MAX_VALUE;
+        for (int r = 0; r < WARMUP; r++) {
+            long t0 = System.nanoTime();
+            for (int idx : indices) puits += accesseur.get(idx);
+            meilleur = Math.min(meilleur, System.nanoTime() - t0);
+        }
+        return meilleur;
+    }
+
+    private static long mesurerApresSans(Accesseur accesseur, int[] indices) {
+        long meilleur = Long.MAX_VALUE;
+        for (int r = 0; r < WARMUP; r++) {
+            long t0 = System.nanoTime();
+            for (int idx : indices) puits += accesseur.get(idx);
+            meilleur = Math.min(meilleur, System.nanoTime() - t0);
+        }
+        return meilleur;
     }
 
     private static int[] genererTableauAleatoire(int taille, int minInclusive, int maxInclusive) {
@@ -120,6 +230,18 @@ public class BenchmarkCompression {
         long avgCompressNs = totalCompress / REPEAT;
         long avgDecompressNs = totalDecompress / REPEAT;
 
+        // Contrôle d'intégrité sans décodage : CRC32C par bloc sur la trame protégée
+        int[] protegee = SommeControle.proteger(lastCompressed);
+        boolean verifOk = true;
+        for (int i = 0; i < WARMUP; i++) verifOk &= SommeControle.verifier(protegee);
+        long totalVerify = 0;
+        for (int i = 0; i < REPEAT; i++) {
+            long t0 = System.nanoTime();
+            verifOk &= SommeControle.verifier(protegee);
+            totalVerify += System.nanoTime() - t0;
+        }
+        long avgVerifyNs = totalVerify / REPEAT;
+
         int tailleOriginale = original.length;
         int tailleCompressee = lastCompressed.length;
         double ratio = (double) tailleCompressee / (double) tailleOriginale;
@@ -137,6 +259,7 @@ public class BenchmarkCompression {
         System.out.printf("Compression OK ?   : %s%n", Arrays.equals(original, lastDecompressed) ? "OUI" : "NON");
         System.out.printf("Temps moyen compress   : %d ns%n", avgCompressNs);
         System.out.printf("Temps moyen decompress : %d ns%n", avgDecompressNs);
+        System.out.printf("Temps moyen verify     : %d ns (CRC32C, %s)%n", avgVerifyNs, verifOk ? "OK" : "CORROMPU");
 
         if (rentable) {
             double gain = (double) (tailleOriginale - tailleCompressee); // en ints
@@ -148,6 +271,29 @@ public class BenchmarkCompression {
         }
     }
 
+    /**
+     * Trame compacte (tag 1 octet, varints, payload à l'octet près) : taille et temps de décodage.
+     */
+    private static void benchmarkCompacte(int[] original) {
+        System.out.println(">> Trame compacte (octets)");
+        byte[] trame = TrameCompacte.compresser(original);
+        for (int i = 0; i < WARMUP; i++) TrameCompacte.decompresser(trame);
+
+        long totalDecompress = 0;
+        int[] lastDecompressed = null;
+        for (int i = 0; i < REPEAT; i++) {
+            long t0 = System.nanoTime();
+            lastDecompressed = TrameCompacte.decompresser(trame);
+            totalDecompress += System.nanoTime() - t0;
+        }
+
+        System.out.printf("Taille originale   : %d octets%n", original.length * 4);
+        System.out.printf("Taille compacte    : %d octets (en-tête %d octets)%n",
+                trame.length, TrameCompacte.lire(trame).getTailleEnTete());
+        System.out.printf("Compression OK ?   : %s%n", Arrays.equals(original, lastDecompressed) ? "OUI" : "NON");
+        System.out.printf("Temps moyen decompress : %d ns%n", totalDecompress / REPEAT);
+    }
+
     private static void printHeaderAnalysis(TypeCompression type, int[] comp) {
         final int MAGIC = 0x42505431;
         if (comp == null || comp.length < 5 || comp[0] != MAGIC) {
@@ -179,7 +325,7 @@ public class BenchmarkCompression {
                 System.out.printf("- Seuil n (approx): > %.2f éléments (header inclus)%n", nThreshold);
             }
         } else if (type == TypeCompression.AVEC_DEBORDEMENT) {
-            if (comp.length < 8) {
+            if (comp.length < 9) {
                 System.out.println("(Info) En-tête débordement incomplet.");
                 return;
             }
@@ -187,16 +333,18 @@ public class BenchmarkCompression {
             int kPrime = comp[5];
             int bitsIndex = comp[6];
             int lenOverflow = comp[7];
-            int headerInts = 8;
-            int overflowInts = lenOverflow;
+            int largeurDebordement = comp[8];
+            int headerInts = 9;
+            int overflowInts = (int) Math.ceil(lenOverflow * largeurDebordement / 32.0);
             int dataInts = Math.max(0, comp.length - headerInts - overflowInts);
             double headerCostPct = 100.0 * headerInts / comp.length;
-            int payloadBits = (originalLen * largeurChamp) + (overflowInts * 32);
+            int payloadBits = (originalLen * largeurChamp) + (lenOverflow * largeurDebordement);
             int payloadIntsLower = (int) Math.ceil(payloadBits / 32.0);
 
             System.out.println("Résumé header/payload:");
             System.out.printf("- Header                 : %d ints%n", headerInts);
-            System.out.printf("- Overflow (zone)        : %d ints%n", overflowInts);
+            System.out.printf("- Overflow (zone)        : %d ints (%d valeurs × %d bits, écart à 2^k')%n",
+                    overflowInts, lenOverflow, largeurDebordement);
             System.out.printf("- Data (flux principal)  : %d ints%n", dataInts);
             System.out.printf("- Payload total (théorie): %d bits (≈%d ints)%n", payloadBits, payloadIntsLower);
             System.out.printf("- Coût header            : %.1f%%%n", headerCostPct);
@@ -205,7 +353,7 @@ public class BenchmarkCompression {
             if (largeurChamp < 32) {
                 double nThreshold = (headerInts + overflowInts) / (1.0 - (largeurChamp / 32.0));
                 System.out.printf("- Seuil n (approx)       : > %.2f éléments (overflow observé=%d)%n",
-                        nThreshold, overflowInts);
+                        nThreshold, lenOverflow);
             }
         }
     }
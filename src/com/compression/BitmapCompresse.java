@@ -0,0 +1,453 @@
+package com.compression;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble d'entiers distincts et positifs, à la manière de Roaring :
+ * les valeurs sont regroupées par tranche de 2^16 (16 bits de poids fort = clé),
+ * et chaque tranche est rangée dans le plus petit des trois conteneurs :
+ *  - TABLEAU : valeurs basses triées (16 bits chacune), pour les tranches peu denses ;
+ *  - BITMAP  : 65536 bits, pour les tranches denses ;
+ *  - RUNS    : suites [début, longueur], pour les plages contiguës.
+ *
+ * Les opérations et / ou / etSauf travaillent conteneur par conteneur,
+ * sans reconstruire de tableau int[].
+ * Format de trame : voir CompressionBitmap.
+ */
+public final class BitmapCompresse {
+    static final int TABLEAU = 0;
+    static final int BITMAP = 1;
+    static final int RUNS = 2;
+
+    private static final int MAX_TABLEAU = 4096; // au-delà, un bitmap (8 Kio) est plus petit
+
+    // Clés triées et conteneurs associés (même indice)
+    private final char[] cles;
+    private final Conteneur[] conteneurs;
+    private final int nbConteneurs;
+
+    private BitmapCompresse(char[] cles, Conteneur[] conteneurs, int nbConteneurs) {
+        this.cles = cles;
+        this.conteneurs = conteneurs;
+        this.nbConteneurs = nbConteneurs;
+    }
+
+    /** Construit l'ensemble des valeurs du tableau (ordre quelconque, doublons ignorés). */
+    public static BitmapCompresse depuisTableau(int[] valeurs) {
+        int[] tri = valeurs.clone();
+        Arrays.sort(tri);
+        if (tri.length > 0 && tri[0] < 0) {
+            throw new IllegalArgumentException("Valeur négative non supportée : " + tri[0]);
+        }
+
+        char[] cles = new char[8];
+        Conteneur[] conteneurs = new Conteneur[8];
+        int nb = 0;
+        char[] bas = new char[1 << 16];
+        int i = 0;
+        while (i < tri.length) {
+            int cle = tri[i] >>> 16;
+            int nbBas = 0;
+            for (; i < tri.length && (tri[i] >>> 16) == cle; i++) {
+                char v = (char) tri[i];
+                if (nbBas == 0 || bas[nbBas - 1] != v) bas[nbBas++] = v;
+            }
+            if (nb == cles.length) {
+                cles = Arrays.copyOf(cles, nb * 2);
+                conteneurs = Arrays.copyOf(conteneurs, nb * 2);
+            }
+            cles[nb] = (char) cle;
+            conteneurs[nb] = depuisTries(bas, nbBas);
+            nb++;
+        }
+        return new BitmapCompresse(cles, conteneurs, nb);
+    }
+
+    /**
+     * Conversion depuis une trame : une trame bitmap est lue conteneur par conteneur,
+     * les autres types sont décodés puis rangés.
+     */
+    public static BitmapCompresse depuisTrame(int[] trame) {
+        Frames.decodeur(trame);
+        if (trame[2] == TypeCompression.BITMAP.ordinal()) return CompressionBitmap.lire(trame);
+        return depuisTableau(Frames.decode(trame));
+    }
+
+    /** Conversion vers une trame du type demandé (le type BITMAP garde les conteneurs). */
+    public int[] versTrame(TypeCompression type) {
+        if (type == TypeCompression.BITMAP) return CompressionBitmap.ecrire(this);
+        return CompressionFactory.create(type).compresser(versTableau());
+    }
+
+    public boolean contient(int v) {
+        if (v < 0) return false;
+        int j = indiceCle((char) (v >>> 16));
+        return j >= 0 && conteneurs[j].contient((char) v);
+    }
+
+    public int cardinalite() {
+        int total = 0;
+        for (int j = 0; j < nbConteneurs; j++) total += conteneurs[j].cardinalite();
+        return total;
+    }
+
+    /** Valeurs de l'ensemble, en ordre croissant. */
+    public int[] versTableau() {
+        int[] resultat = new int[cardinalite()];
+        int pos = 0;
+        for (int j = 0; j < nbConteneurs; j++) {
+            pos = conteneurs[j].versTableau(resultat, pos, cles[j] << 16);
+        }
+        return resultat;
+    }
+
+    /** Intersection : seules les clés communes sont visitées. */
+    public BitmapCompresse et(BitmapCompresse autre) {
+        Constructeur res = new Constructeur(Math.min(nbConteneurs, autre.nbConteneurs));
+        int a = 0;
+        int b = 0;
+        while (a < nbConteneurs && b < autre.nbConteneurs) {
+            if (cles[a] < autre.cles[b]) a++;
+            else if (cles[a] > autre.cles[b]) b++;
+            else res.ajouter(cles[a], et(conteneurs[a++], autre.conteneurs[b++]));
+        }
+        return res.construire();
+    }
+
+    public BitmapCompresse ou(BitmapCompresse autre) {
+        Constructeur res = new Constructeur(nbConteneurs + autre.nbConteneurs);
+        int a = 0;
+        int b = 0;
+        while (a < nbConteneurs || b < autre.nbConteneurs) {
+            if (b == autre.nbConteneurs || (a < nbConteneurs && cles[a] < autre.cles[b])) {
+                res.ajouter(cles[a], conteneurs[a++]);
+            } else if (a == nbConteneurs || cles[a] > autre.cles[b]) {
+                res.ajouter(autre.cles[b], autre.conteneurs[b++]);
+            } else {
+                res.ajouter(cles[a], ou(conteneurs[a++], autre.conteneurs[b++]));
+            }
+        }
+        return res.construire();
+    }
+
+    /** Différence : valeurs de cet ensemble absentes de l'autre. */
+    public BitmapCompresse etSauf(BitmapCompresse autre) {
+        Constructeur res = new Constructeur(nbConteneurs);
+        int b = 0;
+        for (int a = 0; a < nbConteneurs; a++) {
+            while (b < autre.nbConteneurs && autre.cles[b] < cles[a]) b++;
+            if (b < autre.nbConteneurs && autre.cles[b] == cles[a]) {
+                res.ajouter(cles[a], etSauf(conteneurs[a], autre.conteneurs[b]));
+            } else {
+                res.ajouter(cles[a], conteneurs[a]);
+            }
+        }
+        return res.construire();
+    }
+
+    // ------------------------------------------------------------------
+    // Accès pour la sérialisation (CompressionBitmap)
+
+    int nbConteneurs() {
+        return nbConteneurs;
+    }
+
+    char cle(int j) {
+        return cles[j];
+    }
+
+    Conteneur conteneur(int j) {
+        return conteneurs[j];
+    }
+
+    static BitmapCompresse assembler(char[] cles, Conteneur[] conteneurs) {
+        return new BitmapCompresse(cles, conteneurs, cles.length);
+    }
+
+    private int indiceCle(char cle) {
+        int bas = 0;
+        int haut = nbConteneurs - 1;
+        while (bas <= haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (cles[milieu] < cle) bas = milieu + 1;
+            else if (cles[milieu] > cle) haut = milieu - 1;
+            else return milieu;
+        }
+        return -1;
+    }
+
+    private static final class Constructeur {
+        private char[] cles;
+        private Conteneur[] conteneurs;
+        private int nb;
+
+        Constructeur(int capacite) {
+            cles = new char[Math.max(1, capacite)];
+            conteneurs = new Conteneur[Math.max(1, capacite)];
+        }
+
+        // Un conteneur vide (null) est simplement ignoré
+        void ajouter(char cle, Conteneur c) {
+            if (c == null) return;
+            cles[nb] = cle;
+            conteneurs[nb++] = c;
+        }
+
+        BitmapCompresse construire() {
+            return new BitmapCompresse(cles, conteneurs, nb);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Conteneurs (immuables une fois construits)
+
+    abstract static class Conteneur {
+        abstract int type();
+        abstract int cardinalite();
+        abstract boolean contient(char v);
+        abstract long[] versMots();
+
+        /** Écrit (haut | bas) pour chaque valeur à partir de dest[pos] ; renvoie la position suivante. */
+        abstract int versTableau(int[] dest, int pos, int haut);
+    }
+
+    static final class ConteneurTableau extends Conteneur {
+        final char[] valeurs;
+
+        ConteneurTableau(char[] valeurs) {
+            this.valeurs = valeurs;
+        }
+
+        @Override int type() { return TABLEAU; }
+        @Override int cardinalite() { return valeurs.length; }
+        @Override boolean contient(char v) { return Arrays.binarySearch(valeurs, v) >= 0; }
+
+        @Override
+        long[] versMots() {
+            long[] mots = new long[1024];
+            for (char v : valeurs) mots[v >>> 6] |= 1L << v;
+            return mots;
+        }
+
+        @Override
+        int versTableau(int[] dest, int pos, int haut) {
+            for (char v : valeurs) dest[pos++] = haut | v;
+            return pos;
+        }
+    }
+
+    static final class ConteneurBitmap extends Conteneur {
+        final long[] mots;
+        private final int cardinalite;
+
+        ConteneurBitmap(long[] mots, int cardinalite) {
+            this.mots = mots;
+            this.cardinalite = cardinalite;
+        }
+
+        @Override int type() { return BITMAP; }
+        @Override int cardinalite() { return cardinalite; }
+        @Override boolean contient(char v) { return (mots[v >>> 6] & (1L << v)) != 0; }
+        @Override long[] versMots() { return mots.clone(); }
+
+        @Override
+        int versTableau(int[] dest, int pos, int haut) {
+            for (int m = 0; m < mots.length; m++) {
+                long w = mots[m];
+                while (w != 0) {
+                    dest[pos++] = haut | (m << 6) | Long.numberOfTrailingZeros(w);
+                    w &= w - 1;
+                }
+            }
+            return pos;
+        }
+    }
+
+    static final class ConteneurRuns extends Conteneur {
+        final char[] debuts;
+        final char[] longueurs; // longueur - 1 (une suite couvre au plus 2^16 valeurs)
+        private final int cardinalite;
+
+        ConteneurRuns(char[] debuts, char[] longueurs) {
+            this.debuts = debuts;
+            this.longueurs = longueurs;
+            int total = 0;
+            for (char l : longueurs) total += l + 1;
+            this.cardinalite = total;
+        }
+
+        @Override int type() { return RUNS; }
+        @Override int cardinalite() { return cardinalite; }
+
+        @Override
+        boolean contient(char v) {
+            // Dernière suite commençant avant ou sur v
+            int bas = 0;
+            int haut = debuts.length - 1;
+            int r = -1;
+            while (bas <= haut) {
+                int milieu = (bas + haut) >>> 1;
+                if (debuts[milieu] <= v) {
+                    r = milieu;
+                    bas = milieu + 1;
+                } else {
+                    haut = milieu - 1;
+                }
+            }
+            return r >= 0 && v - debuts[r] <= longueurs[r];
+        }
+
+        @Override
+        long[] versMots() {
+            long[] mots = new long[1024];
+            for (int r = 0; r < debuts.length; r++) {
+                int debut = debuts[r];
+                int fin = debut + longueurs[r]; // inclus
+                for (int m = debut >>> 6; m <= fin >>> 6; m++) {
+                    long masque = -1L;
+                    if (m == debut >>> 6) masque &= -1L << debut;
+                    if (m == fin >>> 6) masque &= -1L >>> (63 - (fin & 63));
+                    mots[m] |= masque;
+                }
+            }
+            return mots;
+        }
+
+        @Override
+        int versTableau(int[] dest, int pos, int haut) {
+            for (int r = 0; r < debuts.length; r++) {
+                int debut = debuts[r];
+                for (int v = debut; v <= debut + longueurs[r]; v++) dest[pos++] = haut | v;
+            }
+            return pos;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Choix du conteneur et opérations entre conteneurs
+
+    /** Plus petit conteneur pour nb valeurs basses triées sans doublon (null si vide). */
+    static Conteneur depuisTries(char[] bas, int nb) {
+        if (nb == 0) return null;
+        int nbRuns = 1;
+        for (int i = 1; i < nb; i++) if (bas[i] != bas[i - 1] + 1) nbRuns++;
+
+        int tailleTableau = 2 * nb;
+        int tailleRuns = 4 * nbRuns;
+        if (tailleRuns < Math.min(tailleTableau, 8192)) {
+            char[] debuts = new char[nbRuns];
+            char[] longueurs = new char[nbRuns];
+            int r = -1;
+            for (int i = 0; i < nb; i++) {
+                if (i == 0 || bas[i] != bas[i - 1] + 1) {
+                    debuts[++r] = bas[i];
+                } else {
+                    longueurs[r]++;
+                }
+            }
+            return new ConteneurRuns(debuts, longueurs);
+        }
+        if (nb <= MAX_TABLEAU) return new ConteneurTableau(Arrays.copyOf(bas, nb));
+
+        long[] mots = new long[1024];
+        for (int i = 0; i < nb; i++) mots[bas[i] >>> 6] |= 1L << bas[i];
+        return new ConteneurBitmap(mots, nb);
+    }
+
+    /** Plus petit conteneur pour un bitmap (null si vide). */
+    static Conteneur depuisMots(long[] mots) {
+        int nb = 0;
+        int nbRuns = 0;
+        long precedent = 0; // bit 63 du mot précédent
+        for (long w : mots) {
+            nb += Long.bitCount(w);
+            // Début de suite : bit à 1 dont le voisin de gauche est à 0
+            nbRuns += Long.bitCount(w & ~((w << 1) | (precedent >>> 63)));
+            precedent = w;
+        }
+        if (nb == 0) return null;
+        if (nb > MAX_TABLEAU && 4 * nbRuns >= 8192) return new ConteneurBitmap(mots, nb);
+
+        char[] bas = new char[nb];
+        int pos = 0;
+        for (int m = 0; m < mots.length; m++) {
+            long w = mots[m];
+            while (w != 0) {
+                bas[pos++] = (char) ((m << 6) | Long.numberOfTrailingZeros(w));
+                w &= w - 1;
+            }
+        }
+        return depuisTries(bas, nb);
+    }
+
+    static Conteneur et(Conteneur a, Conteneur b) {
+        if (b instanceof ConteneurTableau && !(a instanceof ConteneurTableau)) return et(b, a);
+        if (a instanceof ConteneurTableau) {
+            char[] va = ((ConteneurTableau) a).valeurs;
+            char[] res = new char[va.length];
+            int nb = 0;
+            if (b instanceof ConteneurTableau) {
+                // Fusion de deux tableaux triés
+                char[] vb = ((ConteneurTableau) b).valeurs;
+                int i = 0;
+                int j = 0;
+                while (i < va.length && j < vb.length) {
+                    if (va[i] < vb[j]) i++;
+                    else if (va[i] > vb[j]) j++;
+                    else { res[nb++] = va[i++]; j++; }
+                }
+            } else {
+                for (char v : va) if (b.contient(v)) res[nb++] = v;
+            }
+            return depuisTries(res, nb);
+        }
+        long[] mots = a.versMots();
+        long[] autres = (b instanceof ConteneurBitmap) ? ((ConteneurBitmap) b).mots : b.versMots();
+        for (int m = 0; m < mots.length; m++) mots[m] &= autres[m];
+        return depuisMots(mots);
+    }
+
+    static Conteneur ou(Conteneur a, Conteneur b) {
+        if (a instanceof ConteneurTableau && b instanceof ConteneurTableau
+                && a.cardinalite() + b.cardinalite() <= MAX_TABLEAU) {
+            char[] va = ((ConteneurTableau) a).valeurs;
+            char[] vb = ((ConteneurTableau) b).valeurs;
+            char[] res = new char[va.length + vb.length];
+            int nb = 0;
+            int i = 0;
+            int j = 0;
+            while (i < va.length || j < vb.length) {
+                if (j == vb.length || (i < va.length && va[i] < vb[j])) res[nb++] = va[i++];
+                else if (i == va.length || va[i] > vb[j]) res[nb++] = vb[j++];
+                else { res[nb++] = va[i++]; j++; }
+            }
+            return depuisTries(res, nb);
+        }
+        long[] mots = a.versMots();
+        if (b instanceof ConteneurTableau) {
+            for (char v : ((ConteneurTableau) b).valeurs) mots[v >>> 6] |= 1L << v;
+        } else {
+            long[] autres = (b instanceof ConteneurBitmap) ? ((ConteneurBitmap) b).mots : b.versMots();
+            for (int m = 0; m < mots.length; m++) mots[m] |= autres[m];
+        }
+        return depuisMots(mots);
+    }
+
+    static Conteneur etSauf(Conteneur a, Conteneur b) {
+        if (a instanceof ConteneurTableau) {
+            char[] va = ((ConteneurTableau) a).valeurs;
+            char[] res = new char[va.length];
+            int nb = 0;
+            for (char v : va) if (!b.contient(v)) res[nb++] = v;
+            return depuisTries(res, nb);
+        }
+        long[] mots = a.versMots();
+        if (b instanceof ConteneurTableau) {
+            for (char v : ((ConteneurTableau) b).valeurs) mots[v >>> 6] &= ~(1L << v);
+        } else {
+            long[] autres = (b instanceof ConteneurBitmap) ? ((ConteneurBitmap) b).mots : b.versMots();
+            for (int m = 0; m < mots.length; m++) mots[m] &= ~autres[m];
+        }
+        return depuisMots(mots);
+    }
+}
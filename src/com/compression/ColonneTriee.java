@@ -0,0 +1,161 @@
+package com.compression;
+
+import java.util.Arrays;
+
+/**
+ * Recherche directe dans une trame triée (ordre croissant) AVEC ou SANS chevauchement,
+ * sans la décompresser.
+ *
+ * Un index échantillonné (une valeur toutes les `pas` positions) réduit la recherche
+ * à un bloc par recherche dichotomique ; le bloc est ensuite parcouru mot par mot
+ * dans le flux compacté, sans appel virtuel par élément.
+ * Le tri n'est pas vérifié : une trame non triée donne des résultats non spécifiés.
+ */
+public final class ColonneTriee {
+    static final int PAS_DEFAUT = 64;
+
+    private final int[] trame;
+    private final boolean chevauchement;
+    private final int taille;
+    private final int k;
+    private final int mask;
+    private final int pas;
+    private final int[] echantillons;
+    private final Accesseur accesseur;
+
+    public ColonneTriee(int[] trame) {
+        this(trame, PAS_DEFAUT);
+    }
+
+    public ColonneTriee(int[] trame, int pas) {
+        if (pas <= 0) throw new IllegalArgumentException("Pas d'échantillonnage invalide : " + pas);
+        Decodeur decodeur = Frames.decodeur(trame);
+        int type = trame[2];
+        if (type != TypeCompression.AVEC_CHEVAUCHEMENT.ordinal()
+                && type != TypeCompression.SANS_CHEVAUCHEMENT.ordinal()) {
+            throw new IllegalArgumentException("Type de compression non supporté pour la recherche : " + type);
+        }
+        // Une trame protégée est validée une fois ici : les parcours lisent ensuite les mots directement
+        if (SommeControle.estProtegee(trame) && !SommeControle.verifier(trame)) {
+            throw new IllegalArgumentException("Somme de contrôle invalide");
+        }
+
+        this.trame = trame;
+        this.chevauchement = type == TypeCompression.AVEC_CHEVAUCHEMENT.ordinal();
+        this.taille = trame[3];
+        this.k = trame[4];
+        this.mask = Accesseurs.masque(k);
+        this.pas = pas;
+        this.accesseur = decodeur.accesseur(trame);
+
+        this.echantillons = new int[(taille + pas - 1) / pas];
+        for (int j = 0; j < echantillons.length; j++) {
+            echantillons[j] = accesseur.get(j * pas);
+        }
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    public int get(int i) {
+        if (i < 0 || i >= taille) throw new IndexOutOfBoundsException("Indice hors limites : " + i);
+        return accesseur.get(i);
+    }
+
+    /** Indice de la première occurrence de v, ou -1 si v est absent. */
+    public int indexOf(int v) {
+        int i = lowerBound(v);
+        return (i < taille && accesseur.get(i) == v) ? i : -1;
+    }
+
+    /** Premier indice dont la valeur est >= v (taille si aucun). */
+    public int lowerBound(int v) {
+        return borne(v, false, 0);
+    }
+
+    /** Premier indice dont la valeur est > v (taille si aucun). */
+    public int upperBound(int v) {
+        return borne(v, true, 0);
+    }
+
+    /**
+     * Intersection de deux colonnes triées : valeurs communes, en ordre croissant.
+     * La plus courte est parcourue, chaque valeur est cherchée dans l'autre
+     * à partir de la dernière position trouvée.
+     */
+    public static int[] intersection(ColonneTriee a, ColonneTriee b) {
+        ColonneTriee courte = (a.taille <= b.taille) ? a : b;
+        ColonneTriee longue = (courte == a) ? b : a;
+
+        int[] resultat = new int[Math.min(16, courte.taille)];
+        int nb = 0;
+        int pos = 0;
+        for (int i = 0; i < courte.taille && pos < longue.taille; i++) {
+            int v = courte.accesseur.get(i);
+            pos = longue.borne(v, false, pos);
+            if (pos < longue.taille && longue.accesseur.get(pos) == v) {
+                if (nb == resultat.length) resultat = Arrays.copyOf(resultat, nb * 2);
+                resultat[nb++] = v;
+                pos++;
+            }
+        }
+        return Arrays.copyOf(resultat, nb);
+    }
+
+    // Premier indice >= depuis dont la valeur est >= v (strict = false) ou > v (strict = true)
+    private int borne(int v, boolean strict, int depuis) {
+        if (depuis >= taille) return taille;
+
+        // Dernier échantillon j (>= bloc de départ) tel que echantillons[j] < v (ou <= v si strict)
+        int bas = depuis / pas;
+        int haut = echantillons.length - 1;
+        int j = bas - 1;
+        while (bas <= haut) {
+            int milieu = (bas + haut) >>> 1;
+            int e = echantillons[milieu];
+            if (e < v || (strict && e == v)) {
+                j = milieu;
+                bas = milieu + 1;
+            } else {
+                haut = milieu - 1;
+            }
+        }
+        if (j < depuis / pas) return depuis; // déjà satisfait au point de départ
+
+        int debut = Math.max(depuis, j * pas + 1);
+        int fin = Math.min((j + 1) * pas, taille);
+        return chevauchement ? parcoursAvec(debut, fin, v, strict) : parcoursSans(debut, fin, v, strict);
+    }
+
+    // Parcours du flux continu : lecture de deux mots voisins, décalage incrémental
+    private int parcoursAvec(int debut, int fin, int v, boolean strict) {
+        int dernier = 5 + (int) (((long) taille * k + 31) / 32) - 1;
+        int bitPos = debut * k;
+        for (int i = debut; i < fin; i++, bitPos += k) {
+            int idx = 5 + (bitPos >>> 5);
+            long w = (trame[idx] & 0xFFFFFFFFL) | ((long) trame[Math.min(idx + 1, dernier)] << 32);
+            int val = (int) (w >>> (bitPos & 31)) & mask;
+            if (val > v || (!strict && val == v)) return i;
+        }
+        return fin;
+    }
+
+    // Parcours sans chevauchement : chaque mot est lu une fois puis décalé de k bits par valeur
+    private int parcoursSans(int debut, int fin, int v, boolean strict) {
+        int valeursParInt = 32 / k;
+        int i = debut;
+        int index = 5 + debut / valeursParInt;
+        int posDansInt = debut % valeursParInt;
+        while (i < fin) {
+            int mot = trame[index] >>> (posDansInt * k);
+            for (; posDansInt < valeursParInt && i < fin; posDansInt++, i++, mot >>>= k) {
+                int val = mot & mask;
+                if (val > v || (!strict && val == v)) return i;
+            }
+            posDansInt = 0;
+            index++;
+        }
+        return fin;
+    }
+}
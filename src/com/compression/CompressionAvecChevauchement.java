@@ -5,13 +5,14 @@ package com.compression;
  * On écrit les entiers dans un flux de bits continu.
  * Un entier peut être découpé entre deux int de 32 bits.
  */
-public class CompressionAvecChevauchement implements Compression {
+public class CompressionAvecChevauchement implements Compression, Decodeur {
     private static final int MAGIC = 0x42505431; // 'BPT1'
     private static final int VERSION = 1;
 
     private int[] donneesCompressees;
     private int largeurBits;
     private int tailleOriginale;
+    private Accesseurs.Avec accesseur;
 
     CompressionAvecChevauchement() {}
 
@@ -66,6 +67,7 @@ public class CompressionAvecChevauchement implements Compression {
         sortie[4] = largeurBits;
         System.arraycopy(donneesCompressees, 0, sortie, headerSize, donneesCompressees.length);
 
+        accesseur = Accesseurs.avecChevauchement(donneesCompressees, 0, donneesCompressees.length, largeurBits);
         return sortie;
     }
 
@@ -75,8 +77,11 @@ public class CompressionAvecChevauchement implements Compression {
         if (compresse == null || compresse.length < 5 || compresse[0] != 0x42505431) {
             throw new IllegalArgumentException("Format compressé invalide (MAGIC)");
         }
-        int version = compresse[1];
+        int version = SommeControle.version(compresse);
         if (version != VERSION) throw new IllegalArgumentException("Version non supportée");
+        if (SommeControle.estProtegee(compresse) && !SommeControle.verifier(compresse)) {
+            throw new IllegalArgumentException("Somme de contrôle invalide");
+        }
         int type = compresse[2];
         if (type != TypeCompression.AVEC_CHEVAUCHEMENT.ordinal()) {
             throw new IllegalArgumentException("Type de compression inattendu pour ce décompresseur");
@@ -109,22 +114,40 @@ public class CompressionAvecChevauchement implements Compression {
 
     @Override
     public int get(int i) {
-        int mask = (1 << largeurBits) - 1;
-        int bitPos = i * largeurBits;
-        int indexInt = bitPos / 32;
+        // Accesseur lié à la largeur lors de compresser() : masque et décalages précalculés
+        return accesseur.get(i);
+    }
+
+    /**
+     * Accès direct au i-ème élément d'une trame, sans état ni décompression.
+     * Si la trame est protégée, seuls les blocs lus sont validés.
+     */
+    @Override
+    public int get(int[] compresse, int i) {
+        SommeControle.verifierBloc(compresse, 0); // en-tête validé avant d'en lire k
+        if (i < 0 || i >= compresse[3]) throw new IndexOutOfBoundsException("Indice hors limites : " + i);
+        int k = compresse[4];
+        int bitPos = i * k;
+        int indexMot = 5 + bitPos / 32;
         int offset = bitPos % 32;
+        boolean aCheval = offset + k > 32;
+        SommeControle.verifierPlage(compresse, indexMot, indexMot + (aCheval ? 2 : 1));
 
-        int val = (donneesCompressees[indexInt] >>> offset);
-        if (offset + largeurBits > 32) {
-            val |= (donneesCompressees[indexInt + 1] << (32 - offset));
-            //System.out.printf("Accès get(%d) chevauche int[%d] et int[%d]%n", i, indexInt, indexInt + 1);
-        } else {
-            //System.out.printf("Accès get(%d) dans int[%d], offset=%d%n", i, indexInt, offset);
+        int val = (compresse[indexMot] >>> offset);
+        if (aCheval) {
+            val |= (compresse[indexMot + 1] << (32 - offset));
         }
-
+        int mask = (k >= 32) ? -1 : (1 << k) - 1;
         return val & mask;
     }
 
+    @Override
+    public Accesseur accesseur(int[] compresse) {
+        int k = compresse[4];
+        int fin = 5 + (int) (((long) compresse[3] * k + 31) / 32);
+        return Accesseurs.avecChevauchement(compresse, 5, fin, k);
+    }
+
     // Getters utiles
     public int[] getDonneesCompressees() {
         return donneesCompressees;
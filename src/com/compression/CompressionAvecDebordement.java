@@ -10,30 +10,50 @@ import java.util.List;
  * - Chaque champ contient :
  *    1 bit indicateur (0 = valeur normale, 1 = débordement)
  *    k' bits pour la valeur ou l'indice dans la zone de débordement
+ * - La zone de débordement est elle-même compactée : chaque valeur y est stockée
+ *   en écart à 2^k', sur largeurDebordement = bitLength(max écart) bits.
+ *
+ * Les trames VERSION 1 (en-tête de 8 ints, zone brute de lenOverflow ints de 32 bits)
+ * restent lisibles : une zone v1 est vue comme une zone de largeur 32 et de seuil 0.
  */
-public class CompressionAvecDebordement implements Compression {
+public class CompressionAvecDebordement implements Compression, Decodeur {
     private static final int MAGIC = 0x42505431; // 'BPT1'
-    private static final int VERSION = 1;
+    static final int VERSION = 2; // v2 : zone de débordement compactée
+    static final int VERSION_ZONE_BRUTE = 1; // v1 : zone brute, sans largeurDebordement
+    static final int TAILLE_EN_TETE = 9;
+    private static final int TAILLE_EN_TETE_V1 = 8;
 
     private int[] donneesCompressees;
     private int[] zoneDebordement;
+    private int[] zoneCompactee;
 
     private int largeurChamp;
     private int kPrime;
     private int bitsIndex;
+    private int largeurDebordement;
     private int tailleOriginale;
+    private Accesseurs.Debordement accesseur;
 
     private String codageBinaire = "";
 
     // === Getters pour affichage dans Main ===
     public int getKPrime() { return kPrime; }
     public int getBitsIndex() { return bitsIndex; }
+    public int getLargeurDebordement() { return largeurDebordement; }
     public int getLargeurChamp() { return largeurChamp; }
     public int[] getZoneDebordement() { return zoneDebordement; }
     public String getCodageBinaire() { return codageBinaire; }
 
     @Override
     public int[] compresser(int[] tableau) {
+        return compresser(tableau, 0);
+    }
+
+    /**
+     * Compression avec un seuil k' imposé (utilisé par OperationsTrames.repack).
+     * kPrimeImpose <= 0 : k' choisi automatiquement.
+     */
+    int[] compresser(int[] tableau, int kPrimeImpose) {
         tailleOriginale = tableau.length;
 
         // Étape 1 : déterminer k' optimal (seuil)
@@ -41,7 +61,7 @@ public class CompressionAvecDebordement implements Compression {
         for (int val : tableau) if (val > max) max = val;
 
         // k' = plus petit nombre tel que 2^k' > moyenne ou seuil raisonnable
-        kPrime = Math.max(1, 32 - Integer.numberOfLeadingZeros(max / 2));
+        kPrime = (kPrimeImpose > 0) ? kPrimeImpose : Math.max(1, 32 - Integer.numberOfLeadingZeros(max / 2));
 
         // Étape 2 : identifier les débordements
         List<Integer> overflow = new ArrayList<>();
@@ -55,6 +75,16 @@ public class CompressionAvecDebordement implements Compression {
         // Conversion en tableau
         zoneDebordement = overflow.stream().mapToInt(Integer::intValue).toArray();
 
+        // Zone compactée : écarts à 2^k' sur la largeur du plus grand écart
+        int seuil = 1 << kPrime;
+        int ecartMax = 0;
+        for (int val : zoneDebordement) ecartMax = Math.max(ecartMax, val - seuil);
+        largeurDebordement = zoneDebordement.length == 0 ? 0 : Math.max(1, 32 - Integer.numberOfLeadingZeros(ecartMax));
+        zoneCompactee = new int[nbMotsZone(zoneDebordement.length, largeurDebordement)];
+        for (int j = 0; j < zoneDebordement.length; j++) {
+            FluxBits.ecrireBits(zoneCompactee, (long) j * largeurDebordement, zoneDebordement[j] - seuil, largeurDebordement);
+        }
+
         // === Pour le codage binaire affichable ===
         StringBuilder codage = new StringBuilder();
 
@@ -95,9 +125,10 @@ public class CompressionAvecDebordement implements Compression {
         codageBinaire = codage.toString().trim();
 
         // Construire sortie avec en-tête et zone de débordement
-        int headerSize = 8; // MAGIC, VERSION, TYPE, tailleOriginale, largeurChamp, kPrime, bitsIndex, lenOverflow
+        // MAGIC, VERSION, TYPE, tailleOriginale, largeurChamp, kPrime, bitsIndex, lenOverflow, largeurDebordement
+        int headerSize = TAILLE_EN_TETE;
         int lenOverflow = zoneDebordement.length;
-        int[] sortie = new int[headerSize + lenOverflow + donneesCompressees.length];
+        int[] sortie = new int[headerSize + zoneCompactee.length + donneesCompressees.length];
         sortie[0] = MAGIC;
         sortie[1] = VERSION;
         sortie[2] = TypeCompression.AVEC_DEBORDEMENT.ordinal();
@@ -106,22 +137,29 @@ public class CompressionAvecDebordement implements Compression {
         sortie[5] = kPrime;
         sortie[6] = bitsIndex;
         sortie[7] = lenOverflow;
-        // zone de débordement
-        System.arraycopy(zoneDebordement, 0, sortie, headerSize, lenOverflow);
+        sortie[8] = largeurDebordement;
+        // zone de débordement (compactée)
+        System.arraycopy(zoneCompactee, 0, sortie, headerSize, zoneCompactee.length);
         // données compressées
-        System.arraycopy(donneesCompressees, 0, sortie, headerSize + lenOverflow, donneesCompressees.length);
+        System.arraycopy(donneesCompressees, 0, sortie, headerSize + zoneCompactee.length, donneesCompressees.length);
 
+        accesseur = Accesseurs.avecDebordement(donneesCompressees, 0, donneesCompressees.length, largeurChamp,
+                Math.max(kPrime, bitsIndex), zoneCompactee, 0, zoneCompactee.length, lenOverflow,
+                largeurDebordement, seuil);
         return sortie;
     }
 
     @Override
     public int[] decompresser(int[] compresse) {
         // Lecture de l'en-tête
-        if (compresse == null || compresse.length < 8 || compresse[0] != MAGIC) {
+        if (compresse == null || compresse.length < TAILLE_EN_TETE_V1 || compresse[0] != MAGIC) {
             throw new IllegalArgumentException("Format compressé invalide (MAGIC)");
         }
-        int version = compresse[1];
-        if (version != VERSION) throw new IllegalArgumentException("Version non supportée");
+        int headerSize = debutZone(compresse); // contrôle aussi la version
+        if (compresse.length < headerSize) throw new IllegalArgumentException("Format compressé invalide (en-tête)");
+        if (SommeControle.estProtegee(compresse) && !SommeControle.verifier(compresse)) {
+            throw new IllegalArgumentException("Somme de contrôle invalide");
+        }
         int type = compresse[2];
         if (type != TypeCompression.AVEC_DEBORDEMENT.ordinal()) {
             throw new IllegalArgumentException("Type de compression inattendu pour ce décompresseur");
@@ -131,15 +169,17 @@ public class CompressionAvecDebordement implements Compression {
         int kPrimeLocal = compresse[5];
         int bitsIndexLocal = compresse[6];
         int lenOverflow = compresse[7];
+        int largeurDebordementLocal = largeurZone(compresse);
 
-        // Lire la zone de débordement locale
-        int headerSize = 8;
-        int overflowStart = headerSize;
-        int dataStart = headerSize + lenOverflow;
+        // Lire la zone de débordement locale (écarts au seuil)
+        long overflowStart = headerSize * 32L;
+        int dataStart = debutDonnees(compresse);
+        int seuil = seuilZone(compresse);
 
         int[] zoneDebordementLocal = new int[lenOverflow];
-        if (lenOverflow > 0) {
-            System.arraycopy(compresse, overflowStart, zoneDebordementLocal, 0, lenOverflow);
+        for (int j = 0; j < lenOverflow; j++) {
+            zoneDebordementLocal[j] = seuil + FluxBits.lireBits(compresse,
+                    overflowStart + (long) j * largeurDebordementLocal, largeurDebordementLocal);
         }
 
         int[] resultat = new int[origLen];
@@ -175,25 +215,100 @@ public class CompressionAvecDebordement implements Compression {
 
     @Override
     public int get(int i) {
-        int bitPos = i * largeurChamp;
-        int indexInt = bitPos / 32;
+        // Accesseur lié lors de compresser() : masques et largeurs ne sont plus recalculés à chaque appel
+        return accesseur.get(i);
+    }
+
+    @Override
+    public boolean supporteVersion(int version) {
+        return version == VERSION || version == VERSION_ZONE_BRUTE;
+    }
+
+    @Override
+    public int tailleEnTete(int[] compresse) {
+        return debutZone(compresse);
+    }
+
+    /**
+     * Accès direct au i-ème élément d'une trame, sans état ni décompression.
+     * Si la trame est protégée, seuls les blocs lus (champ et zone de débordement) sont validés.
+     */
+    @Override
+    public int get(int[] compresse, int i) {
+        SommeControle.verifierBloc(compresse, 0); // en-tête validé avant d'en lire les largeurs
+        int debutZone = debutZone(compresse);
+        if (i < 0 || i >= compresse[3]) throw new IndexOutOfBoundsException("Indice hors limites : " + i);
+        int largeurChampLocal = compresse[4];
+        int innerWidth = Math.max(compresse[5], compresse[6]);
+        int lenOverflow = compresse[7];
+        int largeurDebordementLocal = largeurZone(compresse);
+        int dataStart = debutDonnees(compresse);
+
+        int bitPos = i * largeurChampLocal;
+        int indexMot = dataStart + bitPos / 32;
         int offset = bitPos % 32;
+        boolean aCheval = offset + largeurChampLocal > 32;
+        SommeControle.verifierPlage(compresse, indexMot, indexMot + (aCheval ? 2 : 1));
 
-        int champ = (donneesCompressees[indexInt] >>> offset);
-        if (offset + largeurChamp > 32 && indexInt + 1 < donneesCompressees.length) {
-            champ |= (donneesCompressees[indexInt + 1] << (32 - offset));
+        int champ = (compresse[indexMot] >>> offset);
+        if (aCheval) {
+            champ |= (compresse[indexMot + 1] << (32 - offset));
         }
 
-        int innerWidth = Math.max(kPrime, bitsIndex);
-        int champMask = (largeurChamp >= 32) ? -1 : ((1 << largeurChamp) - 1);
+        int champMask = (largeurChampLocal >= 32) ? -1 : ((1 << largeurChampLocal) - 1);
         int innerMask = (innerWidth >= 32) ? -1 : ((1 << innerWidth) - 1);
-
         int champMasked = champ & champMask;
         int indicateur = champMasked >>> innerWidth;
         int contenu = champMasked & innerMask;
 
-        if (indicateur == 1 && contenu < zoneDebordement.length)
-            return zoneDebordement[contenu];
+        if (indicateur == 1 && contenu < lenOverflow) {
+            long bitZone = debutZone * 32L + (long) contenu * largeurDebordementLocal;
+            SommeControle.verifierPlage(compresse, (int) (bitZone >>> 5),
+                    (int) ((bitZone + largeurDebordementLocal - 1) >>> 5) + 1);
+            return seuilZone(compresse) + FluxBits.lireBits(compresse, bitZone, largeurDebordementLocal);
+        }
         return contenu;
     }
+
+    @Override
+    public Accesseur accesseur(int[] compresse) {
+        int debutZone = debutZone(compresse);
+        int largeurChampLocal = compresse[4];
+        int dataStart = debutDonnees(compresse);
+        int fin = dataStart + FluxBits.nbMots((long) compresse[3] * largeurChampLocal);
+        return Accesseurs.avecDebordement(compresse, dataStart, fin, largeurChampLocal,
+                Math.max(compresse[5], compresse[6]), compresse, debutZone, dataStart, compresse[7],
+                largeurZone(compresse), seuilZone(compresse));
+    }
+
+    /** Nombre d'ints occupés par une zone de débordement compactée. */
+    static int nbMotsZone(int lenOverflow, int largeurDebordement) {
+        return FluxBits.nbMots((long) lenOverflow * largeurDebordement);
+    }
+
+    /**
+     * Indice du premier mot de la zone, c'est-à-dire la taille de l'en-tête :
+     * 9 ints en VERSION 2, 8 en VERSION 1 ; toute autre version est refusée.
+     */
+    static int debutZone(int[] compresse) {
+        int version = SommeControle.version(compresse);
+        if (version == VERSION) return TAILLE_EN_TETE;
+        if (version == VERSION_ZONE_BRUTE) return TAILLE_EN_TETE_V1;
+        throw new IllegalArgumentException("Version non supportée");
+    }
+
+    /** Largeur d'une entrée de zone : largeurDebordement en v2, 32 bits (valeur brute) en v1. */
+    static int largeurZone(int[] compresse) {
+        return (SommeControle.version(compresse) == VERSION_ZONE_BRUTE) ? 32 : compresse[8];
+    }
+
+    /** Valeur ajoutée à chaque entrée de zone : 2^k' en v2, 0 en v1. */
+    static int seuilZone(int[] compresse) {
+        return (SommeControle.version(compresse) == VERSION_ZONE_BRUTE) ? 0 : 1 << compresse[5];
+    }
+
+    /** Indice du premier mot du flux de champs (après en-tête et zone). */
+    static int debutDonnees(int[] compresse) {
+        return debutZone(compresse) + nbMotsZone(compresse[7], largeurZone(compresse));
+    }
 }
@@ -0,0 +1,228 @@
+package com.compression;
+
+/**
+ * Compression BITMAP (à la Roaring) pour les ensembles d'entiers distincts et positifs.
+ *
+ * Format de trame :
+ *   MAGIC, VERSION, TYPE, cardinalite, nbConteneurs,
+ *   répertoire (3 ints par conteneur) : (cle << 2) | typeConteneur, rangDebut, debutDonnees,
+ *   données des conteneurs :
+ *     TABLEAU : 2 valeurs basses (16 bits) par int,
+ *     BITMAP  : 2048 ints (65536 bits),
+ *     RUNS    : (debut << 16) | (longueur - 1), un int par suite.
+ * rangDebut (nombre de valeurs des conteneurs précédents) permet get(i) sans tout décoder.
+ */
+public class CompressionBitmap implements Compression, Decodeur {
+    private static final int MAGIC = 0x42505431; // 'BPT1'
+    private static final int VERSION = 1;
+    private static final int TAILLE_EN_TETE = 5;
+    private static final int TAILLE_ENTREE = 3;
+
+    private int[] derniereTrame;
+
+    CompressionBitmap() {}
+
+    /**
+     * Le tableau doit être strictement croissant et positif (un ensemble trié) :
+     * c'est la condition pour que decompresser() le restitue à l'identique.
+     */
+    @Override
+    public int[] compresser(int[] tableau) {
+        for (int i = 0; i < tableau.length; i++) {
+            if (tableau[i] < 0 || (i > 0 && tableau[i] <= tableau[i - 1])) {
+                throw new IllegalArgumentException("Ensemble trié sans doublon attendu (indice " + i + ")");
+            }
+        }
+        derniereTrame = ecrire(BitmapCompresse.depuisTableau(tableau));
+        return derniereTrame;
+    }
+
+    @Override
+    public int[] decompresser(int[] compresse) {
+        return lire(compresse).versTableau();
+    }
+
+    @Override
+    public int get(int i) {
+        return get(derniereTrame, i);
+    }
+
+    /**
+     * i-ème plus petite valeur : recherche du conteneur par rangDebut, puis sélection dans le conteneur.
+     * Sur une trame protégée, tout le répertoire est validé avant la recherche : elle en lit plusieurs entrées.
+     */
+    @Override
+    public int get(int[] compresse, int i) {
+        int nbConteneurs = compresse[4];
+        SommeControle.verifierPlage(compresse, TAILLE_EN_TETE, TAILLE_EN_TETE + nbConteneurs * TAILLE_ENTREE);
+        if (i < 0 || i >= compresse[3]) throw new IndexOutOfBoundsException("Indice hors limites : " + i);
+
+        int bas = 0;
+        int haut = nbConteneurs - 1;
+        while (bas < haut) {
+            int milieu = (bas + haut + 1) >>> 1;
+            if (compresse[TAILLE_EN_TETE + milieu * TAILLE_ENTREE + 1] <= i) bas = milieu;
+            else haut = milieu - 1;
+        }
+        int entree = TAILLE_EN_TETE + bas * TAILLE_ENTREE;
+        int cleType = compresse[entree];
+        int rang = i - compresse[entree + 1];
+        int debut = compresse[entree + 2];
+        int haut16 = (cleType >>> 2) << 16;
+
+        switch (cleType & 0x3) {
+            case BitmapCompresse.TABLEAU: {
+                int indexMot = debut + (rang >>> 1);
+                SommeControle.verifierBloc(compresse, indexMot);
+                return haut16 | ((compresse[indexMot] >>> ((rang & 1) << 4)) & 0xFFFF);
+            }
+            case BitmapCompresse.BITMAP: {
+                SommeControle.verifierPlage(compresse, debut, debut + 2048);
+                for (int m = 0; m < 2048; m++) {
+                    int w = compresse[debut + m];
+                    int nb = Integer.bitCount(w);
+                    if (rang < nb) {
+                        for (; rang > 0; rang--) w &= w - 1;
+                        return haut16 | (m << 5) | Integer.numberOfTrailingZeros(w);
+                    }
+                    rang -= nb;
+                }
+                break;
+            }
+            case BitmapCompresse.RUNS: {
+                SommeControle.verifierBloc(compresse, debut);
+                int nbRuns = compresse[debut];
+                SommeControle.verifierPlage(compresse, debut + 1, debut + 1 + nbRuns);
+                for (int r = 0; r < nbRuns; r++) {
+                    int run = compresse[debut + 1 + r];
+                    int longueur = (run & 0xFFFF) + 1;
+                    if (rang < longueur) {
+                        return haut16 | ((run >>> 16) + rang);
+                    }
+                    rang -= longueur;
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Conteneur corrompu (type " + (cleType & 0x3) + ")");
+    }
+
+    // ------------------------------------------------------------------
+    // Sérialisation
+
+    static int[] ecrire(BitmapCompresse ensemble) {
+        int nbConteneurs = ensemble.nbConteneurs();
+        int longueur = TAILLE_EN_TETE + nbConteneurs * TAILLE_ENTREE;
+        for (int j = 0; j < nbConteneurs; j++) longueur += tailleDonnees(ensemble.conteneur(j));
+
+        int[] sortie = new int[longueur];
+        sortie[0] = MAGIC;
+        sortie[1] = VERSION;
+        sortie[2] = TypeCompression.BITMAP.ordinal();
+        sortie[4] = nbConteneurs;
+
+        int rang = 0;
+        int pos = TAILLE_EN_TETE + nbConteneurs * TAILLE_ENTREE;
+        for (int j = 0; j < nbConteneurs; j++) {
+            BitmapCompresse.Conteneur c = ensemble.conteneur(j);
+            int entree = TAILLE_EN_TETE + j * TAILLE_ENTREE;
+            sortie[entree] = (ensemble.cle(j) << 2) | c.type();
+            sortie[entree + 1] = rang;
+            sortie[entree + 2] = pos;
+
+            if (c instanceof BitmapCompresse.ConteneurTableau) {
+                char[] valeurs = ((BitmapCompresse.ConteneurTableau) c).valeurs;
+                for (int v = 0; v < valeurs.length; v++) {
+                    sortie[pos + (v >>> 1)] |= valeurs[v] << ((v & 1) << 4);
+                }
+            } else if (c instanceof BitmapCompresse.ConteneurBitmap) {
+                long[] mots = ((BitmapCompresse.ConteneurBitmap) c).mots;
+                for (int m = 0; m < mots.length; m++) {
+                    sortie[pos + 2 * m] = (int) mots[m];
+                    sortie[pos + 2 * m + 1] = (int) (mots[m] >>> 32);
+                }
+            } else {
+                BitmapCompresse.ConteneurRuns runs = (BitmapCompresse.ConteneurRuns) c;
+                sortie[pos] = runs.debuts.length;
+                for (int r = 0; r < runs.debuts.length; r++) {
+                    sortie[pos + 1 + r] = (runs.debuts[r] << 16) | runs.longueurs[r];
+                }
+            }
+            pos += tailleDonnees(c);
+            rang += c.cardinalite();
+        }
+        sortie[3] = rang;
+        return sortie;
+    }
+
+    static BitmapCompresse lire(int[] compresse) {
+        // Lecture de l'en-tête
+        if (compresse == null || compresse.length < TAILLE_EN_TETE || compresse[0] != MAGIC) {
+            throw new IllegalArgumentException("Format compressé invalide (MAGIC)");
+        }
+        int version = SommeControle.version(compresse);
+        if (version != VERSION) throw new IllegalArgumentException("Version non supportée");
+        if (SommeControle.estProtegee(compresse) && !SommeControle.verifier(compresse)) {
+            throw new IllegalArgumentException("Somme de contrôle invalide");
+        }
+        if (compresse[2] != TypeCompression.BITMAP.ordinal()) {
+            throw new IllegalArgumentException("Type de compression inattendu pour ce décompresseur");
+        }
+        int cardinalite = compresse[3];
+        int nbConteneurs = compresse[4];
+
+        char[] cles = new char[nbConteneurs];
+        BitmapCompresse.Conteneur[] conteneurs = new BitmapCompresse.Conteneur[nbConteneurs];
+        for (int j = 0; j < nbConteneurs; j++) {
+            int entree = TAILLE_EN_TETE + j * TAILLE_ENTREE;
+            int cleType = compresse[entree];
+            int debut = compresse[entree + 2];
+            int rangSuivant = (j + 1 < nbConteneurs) ? compresse[entree + TAILLE_ENTREE + 1] : cardinalite;
+            int nb = rangSuivant - compresse[entree + 1];
+            cles[j] = (char) (cleType >>> 2);
+
+            switch (cleType & 0x3) {
+                case BitmapCompresse.TABLEAU: {
+                    char[] valeurs = new char[nb];
+                    for (int v = 0; v < nb; v++) {
+                        valeurs[v] = (char) (compresse[debut + (v >>> 1)] >>> ((v & 1) << 4));
+                    }
+                    conteneurs[j] = new BitmapCompresse.ConteneurTableau(valeurs);
+                    break;
+                }
+                case BitmapCompresse.BITMAP: {
+                    long[] mots = new long[1024];
+                    for (int m = 0; m < mots.length; m++) {
+                        mots[m] = (compresse[debut + 2 * m] & 0xFFFFFFFFL) | ((long) compresse[debut + 2 * m + 1] << 32);
+                    }
+                    conteneurs[j] = new BitmapCompresse.ConteneurBitmap(mots, nb);
+                    break;
+                }
+                case BitmapCompresse.RUNS: {
+                    int nbRuns = compresse[debut];
+                    char[] debuts = new char[nbRuns];
+                    char[] longueurs = new char[nbRuns];
+                    for (int r = 0; r < nbRuns; r++) {
+                        debuts[r] = (char) (compresse[debut + 1 + r] >>> 16);
+                        longueurs[r] = (char) compresse[debut + 1 + r];
+                    }
+                    conteneurs[j] = new BitmapCompresse.ConteneurRuns(debuts, longueurs);
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Conteneur corrompu (type " + (cleType & 0x3) + ")");
+            }
+        }
+        return BitmapCompresse.assembler(cles, conteneurs);
+    }
+
+    private static int tailleDonnees(BitmapCompresse.Conteneur c) {
+        switch (c.type()) {
+            case BitmapCompresse.TABLEAU: return (c.cardinalite() + 1) / 2;
+            case BitmapCompresse.BITMAP: return 2048;
+            default: return 1 + ((BitmapCompresse.ConteneurRuns) c).debuts.length;
+        }
+    }
+}
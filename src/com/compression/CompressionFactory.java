@@ -3,23 +3,25 @@ package com.compression;
 /**
  * Fabrique permettant de créer des objets Compression
  * selon le type choisi via l'enum TypeCompression.
+ * Aucune sortie console : la création peut se faire à chaque requête.
+ * Pour décoder une trame existante, voir Frames.
  */
 public class CompressionFactory {
 
     public static Compression create(TypeCompression type) {
         switch (type) {
             case AVEC_CHEVAUCHEMENT:
-                System.out.println("Type de compression sélectionné : AVEC_CHEVAUCHEMENT");
                 return new CompressionAvecChevauchement();
 
             case SANS_CHEVAUCHEMENT:
-                System.out.println("Type de compression sélectionné : SANS_CHEVAUCHEMENT");
                 return new CompressionSansChevauchement();
 
             case AVEC_DEBORDEMENT:
-                System.out.println("Type de compression sélectionné : AVEC_DEBORDEMENT");
                 return new CompressionAvecDebordement();
 
+            case BITMAP:
+                return new CompressionBitmap();
+
             default:
                 throw new IllegalArgumentException("Type de compression inconnu : " + type);
         }
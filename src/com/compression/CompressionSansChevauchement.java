@@ -5,13 +5,14 @@ package com.compression;
  * On range les valeurs dans des cases fixes de largeur k bits,
  * alignées dans les int de 32 bits (pas de chevauchement entre deux int).
  */
-public class CompressionSansChevauchement implements Compression {
+public class CompressionSansChevauchement implements Compression, Decodeur {
     private static final int MAGIC = 0x42505431; // 'BPT1'
     private static final int VERSION = 1;
 
     private int[] donneesCompressees;
     private int largeurBits;  
     private int tailleOriginale;
+    private Accesseurs.Sans accesseur;
 
     CompressionSansChevauchement() {}
 
@@ -77,6 +78,7 @@ public class CompressionSansChevauchement implements Compression {
         sortie[4] = largeurBits;
         System.arraycopy(donneesCompressees, 0, sortie, headerSize, donneesCompressees.length);
 
+        accesseur = Accesseurs.sansChevauchement(donneesCompressees, 0, largeurBits);
         return sortie;
     }
 
@@ -87,8 +89,11 @@ public class CompressionSansChevauchement implements Compression {
         if (compresse == null || compresse.length < 5 || compresse[0] != MAGIC) {
             throw new IllegalArgumentException("Format compressé invalide (MAGIC)");
         }
-        int version = compresse[1];
+        int version = SommeControle.version(compresse);
         if (version != VERSION) throw new IllegalArgumentException("Version non supportée");
+        if (SommeControle.estProtegee(compresse) && !SommeControle.verifier(compresse)) {
+            throw new IllegalArgumentException("Somme de contrôle invalide");
+        }
         int type = compresse[2];
         if (type != TypeCompression.SANS_CHEVAUCHEMENT.ordinal()) {
             // On pourrait tolérer, mais on signale une incohérence de type
@@ -121,18 +126,31 @@ public class CompressionSansChevauchement implements Compression {
 
     @Override
     public int get(int i) {
-        int mask = (1 << largeurBits) - 1;
-        int valeursParInt = 32 / largeurBits;
-
-        int index = i / valeursParInt;
-        int posDansInt = i % valeursParInt;
+        // Accesseur lié à la largeur lors de compresser() : ni division ni recalcul de masque
+        return accesseur.get(i);
+    }
 
-        int shift = posDansInt * largeurBits;
-        int val = (donneesCompressees[index] >>> shift) & mask;
+    /**
+     * Accès direct au i-ème élément d'une trame, sans état ni décompression.
+     * Si la trame est protégée, seul le bloc lu est validé.
+     */
+    @Override
+    public int get(int[] compresse, int i) {
+        SommeControle.verifierBloc(compresse, 0); // en-tête validé avant d'en lire k
+        if (i < 0 || i >= compresse[3]) throw new IndexOutOfBoundsException("Indice hors limites : " + i);
+        int k = compresse[4];
+        int valeursParInt = 32 / k;
+        int indexMot = 5 + i / valeursParInt;
+        SommeControle.verifierBloc(compresse, indexMot);
 
-        //System.out.printf("Accès direct get(%d) → int[%d], shift=%d → %d%n", i, index, shift, val);
+        int shift = (i % valeursParInt) * k;
+        int mask = (k >= 32) ? -1 : (1 << k) - 1;
+        return (compresse[indexMot] >>> shift) & mask;
+    }
 
-        return val;
+    @Override
+    public Accesseur accesseur(int[] compresse) {
+        return Accesseurs.sansChevauchement(compresse, 5, compresse[4]);
     }
 
     // Getters utiles
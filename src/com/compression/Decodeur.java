@@ -0,0 +1,33 @@
+package com.compression;
+
+/**
+ * Décodeur sans état d'un type de trame.
+ *
+ * Toutes les informations nécessaires sont lues dans l'en-tête de la trame :
+ * une même instance peut donc être partagée (singleton) et utilisée
+ * par plusieurs threads.
+ */
+public interface Decodeur {
+    int[] decompresser(int[] compresse);  // Décompression complète
+    int get(int[] compresse, int i);      // Accès direct sur la trame
+
+    /** Nombre d'éléments de la trame (tailleOriginale, mot 3 de l'en-tête). */
+    default int taille(int[] compresse) {
+        return compresse[3];
+    }
+
+    /** Versions de trame lisibles par ce décodeur (contrôlé par Frames avant toute lecture). */
+    default boolean supporteVersion(int version) {
+        return version == 1;
+    }
+
+    /** Nombre d'ints de l'en-tête (MAGIC, VERSION, TYPE, ...) : ce que couvre le CRC d'en-tête. */
+    default int tailleEnTete(int[] compresse) {
+        return 5;
+    }
+
+    /** Accesseur spécialisé pour cette trame (par défaut : délègue à get(compresse, i)). */
+    default Accesseur accesseur(int[] compresse) {
+        return i -> get(compresse, i);
+    }
+}
@@ -0,0 +1,43 @@
+package com.compression;
+
+/**
+ * Lecture/écriture de champs de bits à une position quelconque d'un flux continu d'ints
+ * (positions en bits, absolues dans le tableau). La destination est supposée à zéro.
+ */
+final class FluxBits {
+
+    private FluxBits() {}
+
+    static int lireBits(int[] src, long bit, int largeur) {
+        int idx = (int) (bit >>> 5);
+        int offset = (int) (bit & 31);
+        int val = src[idx] >>> offset;
+        if (offset + largeur > 32) val |= src[idx + 1] << (32 - offset);
+        return val & Accesseurs.masque(largeur);
+    }
+
+    static void ecrireBits(int[] dst, long bit, int val, int largeur) {
+        int idx = (int) (bit >>> 5);
+        int offset = (int) (bit & 31);
+        dst[idx] |= val << offset;
+        if (offset + largeur > 32) dst[idx + 1] |= val >>> (32 - offset);
+    }
+
+    // Copie nbBits bits par blocs de 32
+    static void copierBits(int[] src, long bitSrc, int[] dst, long bitDst, long nbBits) {
+        while (nbBits >= 32) {
+            ecrireBits(dst, bitDst, lireBits(src, bitSrc, 32), 32);
+            bitSrc += 32;
+            bitDst += 32;
+            nbBits -= 32;
+        }
+        if (nbBits > 0) {
+            int reste = (int) nbBits;
+            ecrireBits(dst, bitDst, lireBits(src, bitSrc, reste), reste);
+        }
+    }
+
+    static int nbMots(long nbBits) {
+        return (int) ((nbBits + 31) / 32);
+    }
+}
@@ -0,0 +1,65 @@
+package com.compression;
+
+import java.util.Arrays;
+
+/**
+ * Point d'entrée unique pour décoder une trame sans connaître son type.
+ *
+ * L'en-tête (MAGIC, VERSION, TYPE) est lu puis la trame est confiée au décodeur
+ * enregistré pour ce TYPE. Les décodeurs sont des singletons sans état, rangés
+ * dans un registre indexé par l'identifiant de type : aucune réflexion,
+ * aucune allocation de décodeur par appel.
+ */
+public final class Frames {
+    private static final int MAGIC = 0x42505431; // 'BPT1'
+
+    // Registre copie-sur-écriture : lecture sans verrou sur le chemin de décodage
+    private static volatile Decodeur[] decodeurs = new Decodeur[0];
+
+    static {
+        enregistrer(TypeCompression.AVEC_CHEVAUCHEMENT.ordinal(), new CompressionAvecChevauchement());
+        enregistrer(TypeCompression.SANS_CHEVAUCHEMENT.ordinal(), new CompressionSansChevauchement());
+        enregistrer(TypeCompression.AVEC_DEBORDEMENT.ordinal(), new CompressionAvecDebordement());
+        enregistrer(TypeCompression.BITMAP.ordinal(), new CompressionBitmap());
+    }
+
+    private Frames() {}
+
+    /**
+     * Enregistre (ou remplace) le décodeur associé à un identifiant de type.
+     * Le décodeur doit être sans état : il est partagé par tous les appels.
+     */
+    public static synchronized void enregistrer(int type, Decodeur decodeur) {
+        if (type < 0) throw new IllegalArgumentException("Identifiant de type invalide : " + type);
+        if (decodeur == null) throw new IllegalArgumentException("Décodeur nul pour le type " + type);
+        Decodeur[] copie = Arrays.copyOf(decodeurs, Math.max(decodeurs.length, type + 1));
+        copie[type] = decodeur;
+        decodeurs = copie;
+    }
+
+    /** Décodeur enregistré pour le type porté par l'en-tête de la trame, après contrôle de la VERSION. */
+    public static Decodeur decodeur(int[] trame) {
+        if (trame == null || trame.length < 5 || trame[0] != MAGIC) {
+            throw new IllegalArgumentException("Format compressé invalide (MAGIC)");
+        }
+        int type = trame[2];
+        Decodeur[] registre = decodeurs;
+        if (type < 0 || type >= registre.length || registre[type] == null) {
+            throw new IllegalArgumentException("Type de compression inconnu : " + type);
+        }
+        if (!registre[type].supporteVersion(SommeControle.version(trame))) {
+            throw new IllegalArgumentException("Version non supportée");
+        }
+        return registre[type];
+    }
+
+    /** Décompresse une trame quel que soit son type. */
+    public static int[] decode(int[] trame) {
+        return decodeur(trame).decompresser(trame);
+    }
+
+    /** Vue en accès direct sur la trame, sans décompression. */
+    public static VueCompressee view(int[] trame) {
+        return new VueCompressee(trame, decodeur(trame));
+    }
+}
@@ -0,0 +1,338 @@
+package com.compression;
+
+import java.util.Arrays;
+
+/**
+ * Opérations sur trames compressées sans passer par decompresser() / compresser() :
+ * concaténation, découpe et changement de largeur.
+ *
+ * Quand les largeurs coïncident, le payload est recopié par blocs de 32 bits décalés
+ * (ou par System.arraycopy si l'alignement le permet) ; sinon les valeurs sont
+ * transférées une à une d'un flux compacté à l'autre, sans tableau intermédiaire.
+ * Les trames produites ne sont pas protégées (voir SommeControle.proteger).
+ */
+public final class OperationsTrames {
+    private static final int MAGIC = 0x42505431; // 'BPT1'
+    private static final int VERSION = 1;
+    private static final int EN_TETE = 5;
+
+    private static final int AVEC = TypeCompression.AVEC_CHEVAUCHEMENT.ordinal();
+    private static final int SANS = TypeCompression.SANS_CHEVAUCHEMENT.ordinal();
+    private static final int DEBORDEMENT = TypeCompression.AVEC_DEBORDEMENT.ordinal();
+
+    private OperationsTrames() {}
+
+    /**
+     * Concatène des trames de même type.
+     * La largeur du résultat est la plus grande des largeurs ; pour le débordement,
+     * les zones sont mises bout à bout et les indices des champs sont décalés.
+     */
+    public static int[] concat(int[]... trames) {
+        if (trames == null || trames.length == 0) {
+            throw new IllegalArgumentException("Aucune trame à concaténer");
+        }
+        int type = trames[0][2];
+        for (int[] t : trames) {
+            controler(t);
+            if (t[2] != type) throw new IllegalArgumentException("Types de compression différents");
+        }
+        if (type == DEBORDEMENT) return concatDebordement(trames);
+
+        int k = 1;
+        long total = 0;
+        for (int[] t : trames) {
+            k = Math.max(k, t[4]);
+            total += t[3];
+        }
+        int n = tailleInt(total);
+        int[] sortie = enTete(type, n, k, EN_TETE + nbMots(type, n, k));
+
+        int position = 0;
+        for (int[] t : trames) {
+            int nt = t[3];
+            if (type == AVEC && t[4] == k) {
+                FluxBits.copierBits(t, EN_TETE * 32L, sortie, EN_TETE * 32L + (long) position * k, (long) nt * k);
+            } else if (type == SANS && t[4] == k && position % (32 / k) == 0) {
+                System.arraycopy(t, EN_TETE, sortie, EN_TETE + position / (32 / k), nbMots(SANS, nt, k));
+            } else {
+                transferer(t, 0, nt, sortie, type, k, position);
+            }
+            position += nt;
+        }
+        return sortie;
+    }
+
+    /** Sous-trame des éléments d'indices [from, to). */
+    public static int[] slice(int[] trame, int from, int to) {
+        controler(trame);
+        if (from < 0 || to > trame[3] || from > to) {
+            throw new IndexOutOfBoundsException("Intervalle invalide : [" + from + ", " + to + ")");
+        }
+        int type = trame[2];
+        if (type == DEBORDEMENT) return sliceDebordement(trame, from, to);
+
+        int k = trame[4];
+        int n = to - from;
+        int[] sortie = enTete(type, n, k, EN_TETE + nbMots(type, n, k));
+
+        if (type == AVEC) {
+            FluxBits.copierBits(trame, EN_TETE * 32L + (long) from * k, sortie, EN_TETE * 32L, (long) n * k);
+        } else if (from % (32 / k) == 0) {
+            int valeursParInt = 32 / k;
+            int nbMots = sortie.length - EN_TETE;
+            System.arraycopy(trame, EN_TETE + from / valeursParInt, sortie, EN_TETE, nbMots);
+            // Les cases au-delà de `to` dans le dernier mot sont remises à zéro
+            int reste = n % valeursParInt;
+            if (reste != 0) sortie[sortie.length - 1] &= Accesseurs.masque(reste * k);
+        } else {
+            transferer(trame, from, to, sortie, SANS, k, 0);
+        }
+        return sortie;
+    }
+
+    /**
+     * Réécrit la trame avec une nouvelle largeur nouveauK (k pour AVEC/SANS chevauchement,
+     * seuil k' pour le débordement). Lève IllegalArgumentException si une valeur ne tient pas.
+     * Pour le débordement, les valeurs doivent être reclassées : la trame est alors décodée.
+     */
+    public static int[] repack(int[] trame, int nouveauK) {
+        controler(trame);
+        int type = trame[2];
+        if (type == DEBORDEMENT) {
+            if (nouveauK < 1 || nouveauK > 30) throw new IllegalArgumentException("k' invalide : " + nouveauK);
+            return new CompressionAvecDebordement().compresser(Frames.decode(trame), nouveauK);
+        }
+        if (nouveauK < 1 || nouveauK > 32) throw new IllegalArgumentException("Largeur invalide : " + nouveauK);
+
+        int n = trame[3];
+        if (nouveauK < trame[4]) {
+            Accesseur source = Frames.decodeur(trame).accesseur(trame);
+            int limite = Accesseurs.masque(nouveauK);
+            for (int i = 0; i < n; i++) {
+                if ((source.get(i) & ~limite) != 0) {
+                    throw new IllegalArgumentException("Valeur trop large pour k=" + nouveauK + " (indice " + i + ")");
+                }
+            }
+        }
+        int[] sortie = enTete(type, n, nouveauK, EN_TETE + nbMots(type, n, nouveauK));
+        transferer(trame, 0, n, sortie, type, nouveauK, 0);
+        return sortie;
+    }
+
+    // ------------------------------------------------------------------
+    // Débordement : zones fusionnées, indices re-basés
+
+    private static int[] concatDebordement(int[][] trames) {
+        int kPrime = 1;
+        long total = 0;
+        for (int[] t : trames) {
+            kPrime = Math.max(kPrime, t[5]);
+            total += t[3];
+        }
+        int n = tailleInt(total);
+        int seuil = 1 << kPrime;
+
+        // 1re passe : nouvelle position de chaque entrée de zone ;
+        // une entrée passée sous le seuil 2^k' commun redevient une valeur en ligne (-1)
+        int[][] valeursZone = new int[trames.length][];
+        int[][] nouvelIndice = new int[trames.length][];
+        int lenOverflow = 0;
+        for (int j = 0; j < trames.length; j++) {
+            valeursZone[j] = lireZone(trames[j]);
+            nouvelIndice[j] = new int[valeursZone[j].length];
+            for (int e = 0; e < valeursZone[j].length; e++) {
+                nouvelIndice[j][e] = (valeursZone[j][e] >= seuil) ? lenOverflow++ : -1;
+            }
+        }
+
+        int[] sortie = enTeteDebordement(n, kPrime, valeursZone, nouvelIndice, lenOverflow);
+        int innerWidth = sortie[4] - 1;
+        int largeurChamp = sortie[4];
+        int dataStart = CompressionAvecDebordement.debutDonnees(sortie);
+
+        int position = 0;
+        for (int j = 0; j < trames.length; j++) {
+            int[] t = trames[j];
+            int nt = t[3];
+            long bitDest = dataStart * 32L + (long) position * largeurChamp;
+            if (identite(nouvelIndice[j]) && t[4] == largeurChamp && Math.max(t[5], t[6]) == innerWidth) {
+                // Même disposition et indices inchangés : copie directe du flux
+                FluxBits.copierBits(t, CompressionAvecDebordement.debutDonnees(t) * 32L, sortie, bitDest,
+                        (long) nt * largeurChamp);
+            } else {
+                transfererChamps(t, 0, nt, nouvelIndice[j], valeursZone[j], sortie, bitDest, innerWidth);
+            }
+            position += nt;
+        }
+        return sortie;
+    }
+
+    private static int[] sliceDebordement(int[] trame, int from, int to) {
+        int largeurSource = trame[4];
+        int innerSource = Math.max(trame[5], trame[6]);
+        int lenSource = trame[7];
+        long bitSource = CompressionAvecDebordement.debutDonnees(trame) * 32L;
+
+        // 1re passe : entrées de la zone encore référencées, numérotées dans l'ordre d'apparition
+        int[] nouvelIndice = new int[lenSource];
+        Arrays.fill(nouvelIndice, -1);
+        int lenOverflow = 0;
+        for (int i = from; i < to; i++) {
+            int champ = FluxBits.lireBits(trame, bitSource + (long) i * largeurSource, largeurSource);
+            int contenu = champ & Accesseurs.masque(innerSource);
+            if ((champ >>> innerSource) == 1 && contenu < lenSource && nouvelIndice[contenu] < 0) {
+                nouvelIndice[contenu] = lenOverflow++;
+            }
+        }
+
+        int[] valeursZone = lireZone(trame);
+        int[] sortie = enTeteDebordement(to - from, trame[5], new int[][] {valeursZone},
+                new int[][] {nouvelIndice}, lenOverflow);
+
+        // 2e passe : champs réécrits avec les nouveaux indices
+        transfererChamps(trame, from, to, nouvelIndice, valeursZone, sortie,
+                CompressionAvecDebordement.debutDonnees(sortie) * 32L, sortie[4] - 1);
+        return sortie;
+    }
+
+    /**
+     * Réécrit les champs [from, to) de la trame source dans le flux destination :
+     * un champ « débordement » d'indice e devient nouvelIndice[e],
+     * ou la valeur en ligne valeursZone[e] si nouvelIndice[e] < 0.
+     */
+    private static void transfererChamps(int[] source, int from, int to, int[] nouvelIndice, int[] valeursZone,
+                                         int[] dest, long bitDest, int innerWidth) {
+        int largeurSource = source[4];
+        int innerSource = Math.max(source[5], source[6]);
+        int maskSource = Accesseurs.masque(innerSource);
+        int lenSource = source[7];
+        int largeurChamp = 1 + innerWidth;
+        long bitSource = CompressionAvecDebordement.debutDonnees(source) * 32L + (long) from * largeurSource;
+
+        for (int i = from; i < to; i++, bitSource += largeurSource, bitDest += largeurChamp) {
+            int champ = FluxBits.lireBits(source, bitSource, largeurSource);
+            int contenu = champ & maskSource;
+            if ((champ >>> innerSource) == 1 && contenu < lenSource) {
+                int indice = nouvelIndice[contenu];
+                int nouveau = (indice >= 0) ? (1 << innerWidth) | indice : valeursZone[contenu];
+                FluxBits.ecrireBits(dest, bitDest, nouveau, largeurChamp);
+            } else {
+                FluxBits.ecrireBits(dest, bitDest, contenu, largeurChamp);
+            }
+        }
+    }
+
+    // Valeurs de la zone (seuil + écart ; zone brute d'une trame v1 : seuil 0, 32 bits)
+    private static int[] lireZone(int[] trame) {
+        int seuil = CompressionAvecDebordement.seuilZone(trame);
+        int largeur = CompressionAvecDebordement.largeurZone(trame);
+        long debut = CompressionAvecDebordement.debutZone(trame) * 32L;
+        int[] valeurs = new int[trame[7]];
+        for (int e = 0; e < valeurs.length; e++) {
+            valeurs[e] = seuil + FluxBits.lireBits(trame, debut + (long) e * largeur, largeur);
+        }
+        return valeurs;
+    }
+
+    private static boolean identite(int[] nouvelIndice) {
+        for (int e = 0; e < nouvelIndice.length; e++) {
+            if (nouvelIndice[e] != e) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Trame débordement vide (champs à zéro) avec en-tête et zone compactée remplis :
+     * les entrées conservées (nouvelIndice >= 0) sont écrites à leur nouvelle position.
+     */
+    private static int[] enTeteDebordement(int n, int kPrime, int[][] valeursZone, int[][] nouvelIndice,
+                                           int lenOverflow) {
+        int seuil = 1 << kPrime;
+        int ecartMax = 0;
+        for (int j = 0; j < valeursZone.length; j++) {
+            for (int e = 0; e < valeursZone[j].length; e++) {
+                if (nouvelIndice[j][e] >= 0) ecartMax = Math.max(ecartMax, valeursZone[j][e] - seuil);
+            }
+        }
+        int largeurDebordement = (lenOverflow == 0) ? 0 : Math.max(1, 32 - Integer.numberOfLeadingZeros(ecartMax));
+        int bitsIndex = (lenOverflow == 0) ? 0 : (32 - Integer.numberOfLeadingZeros(lenOverflow - 1));
+        int largeurChamp = 1 + Math.max(kPrime, bitsIndex);
+        int dataStart = CompressionAvecDebordement.TAILLE_EN_TETE
+                + CompressionAvecDebordement.nbMotsZone(lenOverflow, largeurDebordement);
+
+        int[] sortie = enTete(DEBORDEMENT, n, largeurChamp, dataStart + nbMots(AVEC, n, largeurChamp));
+        sortie[1] = CompressionAvecDebordement.VERSION;
+        sortie[5] = kPrime;
+        sortie[6] = bitsIndex;
+        sortie[7] = lenOverflow;
+        sortie[8] = largeurDebordement;
+
+        for (int j = 0; j < valeursZone.length; j++) {
+            for (int e = 0; e < valeursZone[j].length; e++) {
+                int indice = nouvelIndice[j][e];
+                if (indice < 0) continue;
+                FluxBits.ecrireBits(sortie, CompressionAvecDebordement.TAILLE_EN_TETE * 32L
+                        + (long) indice * largeurDebordement, valeursZone[j][e] - seuil, largeurDebordement);
+            }
+        }
+        return sortie;
+    }
+
+    // ------------------------------------------------------------------
+    // Outils communs
+
+    private static void controler(int[] trame) {
+        Frames.decodeur(trame); // MAGIC, type connu et version lisible (v1 ou v2 pour le débordement)
+        if (trame[2] != AVEC && trame[2] != SANS && trame[2] != DEBORDEMENT) {
+            throw new IllegalArgumentException("Type de compression non supporté : " + trame[2]);
+        }
+        if (SommeControle.estProtegee(trame) && !SommeControle.verifier(trame)) {
+            throw new IllegalArgumentException("Somme de contrôle invalide");
+        }
+    }
+
+    // Copie valeur par valeur [from, to) de la source vers la destination (type AVEC ou SANS, largeur k)
+    private static void transferer(int[] source, int from, int to, int[] dest, int type, int k, int position) {
+        Accesseur lecture = Frames.decodeur(source).accesseur(source);
+        if (type == AVEC) {
+            long bit = EN_TETE * 32L + (long) position * k;
+            for (int i = from; i < to; i++, bit += k) {
+                FluxBits.ecrireBits(dest, bit, lecture.get(i), k);
+            }
+        } else {
+            int valeursParInt = 32 / k;
+            int index = EN_TETE + position / valeursParInt;
+            int posDansInt = position % valeursParInt;
+            for (int i = from; i < to; i++) {
+                dest[index] |= lecture.get(i) << (posDansInt * k);
+                if (++posDansInt == valeursParInt) {
+                    posDansInt = 0;
+                    index++;
+                }
+            }
+        }
+    }
+
+    private static int nbMots(int type, int n, int k) {
+        if (type == SANS) {
+            int valeursParInt = 32 / k;
+            return (n + valeursParInt - 1) / valeursParInt;
+        }
+        return (int) (((long) n * k + 31) / 32);
+    }
+
+    private static int tailleInt(long taille) {
+        if (taille > Integer.MAX_VALUE) throw new IllegalArgumentException("Trame résultante trop grande");
+        return (int) taille;
+    }
+
+    private static int[] enTete(int type, int n, int k, int longueur) {
+        int[] sortie = new int[longueur];
+        sortie[0] = MAGIC;
+        sortie[1] = VERSION;
+        sortie[2] = type;
+        sortie[3] = n;
+        sortie[4] = k;
+        return sortie;
+    }
+}
@@ -0,0 +1,194 @@
+package com.compression;
+
+import java.nio.ByteBuffer;
+import java.lang.ref.WeakReference;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32C;
+
+/**
+ * Sommes de contrôle CRC32C (optionnelles) sur les trames compressées.
+ *
+ * Une trame protégée porte le drapeau FLAG_CRC32C dans le mot VERSION et
+ * se termine par un bloc de contrôle :
+ *   tailleEnTete, tailleBloc, crcEnTete, crcBloc[0..m-1], m
+ * Le payload (tout ce qui suit l'en-tête) est découpé en blocs de tailleBloc ints,
+ * chacun avec son propre CRC : un accès get(i) ne valide que le bloc qu'il lit.
+ * crcEnTete couvre l'en-tête et les deux paramètres tailleEnTete et tailleBloc,
+ * qui décident eux-mêmes du découpage.
+ *
+ * Chaque thread réutilise son CRC32C et un tampon de 1 Kio ; l'en-tête n'est revalidé
+ * par get(i) que lorsque la trame lue change (une fois par vue en pratique).
+ */
+public final class SommeControle {
+    static final int FLAG_CRC32C = 1 << 16;
+    static final int MASQUE_VERSION = 0xFFFF;
+    static final int TAILLE_BLOC_DEFAUT = 256; // 1 Kio par bloc
+
+    private SommeControle() {}
+
+    // État de vérification par thread : les décodeurs sont des singletons partagés
+    private static final class Etat {
+        final CRC32C crc = new CRC32C();
+        final ByteBuffer tampon = ByteBuffer.allocate(TAILLE_BLOC_DEFAUT * 4).order(ByteOrder.LITTLE_ENDIAN);
+        WeakReference<int[]> enTeteValide = new WeakReference<>(null);
+    }
+
+    private static final ThreadLocal<Etat> ETAT = ThreadLocal.withInitial(Etat::new);
+
+    /** Indique si la trame porte des sommes de contrôle. */
+    public static boolean estProtegee(int[] trame) {
+        return trame != null && trame.length >= 2 && (trame[1] & FLAG_CRC32C) != 0;
+    }
+
+    /** Version de la trame, drapeaux retirés. */
+    static int version(int[] trame) {
+        return trame[1] & MASQUE_VERSION;
+    }
+
+    /** Nombre d'ints utiles (en-tête + payload), bloc de contrôle exclu. */
+    static int longueurUtile(int[] trame) {
+        if (!estProtegee(trame)) return trame.length;
+        int nbBlocs = trame[trame.length - 1];
+        return trame.length - (nbBlocs + 4);
+    }
+
+    public static int[] proteger(int[] trame) {
+        return proteger(trame, TAILLE_BLOC_DEFAUT);
+    }
+
+    /**
+     * Retourne une copie de la trame avec le drapeau CRC32C et le bloc de contrôle.
+     * La taille d'en-tête est fournie par le décodeur enregistré pour le TYPE de la trame.
+     */
+    public static int[] proteger(int[] trame, int tailleBloc) {
+        if (estProtegee(trame)) {
+            throw new IllegalArgumentException("Trame déjà protégée");
+        }
+        int tailleEnTete = Frames.decodeur(trame).tailleEnTete(trame);
+        if (tailleEnTete < 2 || trame.length < tailleEnTete) {
+            throw new IllegalArgumentException("Trame trop courte pour l'en-tête");
+        }
+        if (tailleBloc <= 0) throw new IllegalArgumentException("Taille de bloc invalide");
+
+        int longueurPayload = trame.length - tailleEnTete;
+        int nbBlocs = (longueurPayload + tailleBloc - 1) / tailleBloc;
+
+        int[] sortie = new int[trame.length + nbBlocs + 4];
+        System.arraycopy(trame, 0, sortie, 0, trame.length);
+        sortie[1] |= FLAG_CRC32C;
+
+        Etat etat = ETAT.get();
+        int pos = trame.length;
+        sortie[pos++] = tailleEnTete;
+        sortie[pos++] = tailleBloc;
+        sortie[pos++] = crcEnTete(sortie, tailleEnTete, trame.length, etat);
+        for (int b = 0; b < nbBlocs; b++) {
+            int debut = tailleEnTete + b * tailleBloc;
+            int fin = Math.min(debut + tailleBloc, trame.length);
+            sortie[pos++] = crc(sortie, debut, fin - debut, etat);
+        }
+        sortie[pos] = nbBlocs;
+        return sortie;
+    }
+
+    /**
+     * Vérifie toute la trame sans la décoder : un CRC32C par bloc,
+     * au débit mémoire. Une trame non protégée est considérée valide.
+     */
+    public static boolean verifier(int[] trame) {
+        if (!estProtegee(trame)) return trame != null;
+        if (!controleCoherent(trame)) return false;
+
+        int nbBlocs = trame[trame.length - 1];
+        int finPayload = longueurUtile(trame);
+        int tailleEnTete = trame[finPayload];
+        int tailleBloc = trame[finPayload + 1];
+
+        // Tampon de taille fixe : aucune allocation dépendant de tailleBloc (non encore validé ici)
+        Etat etat = ETAT.get();
+        if (crcEnTete(trame, tailleEnTete, finPayload, etat) != trame[finPayload + 2]) return false;
+        for (int b = 0; b < nbBlocs; b++) {
+            int debut = tailleEnTete + b * tailleBloc;
+            int fin = Math.min(debut + tailleBloc, finPayload);
+            if (crc(trame, debut, fin - debut, etat) != trame[finPayload + 3 + b]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Valide uniquement l'en-tête et le bloc contenant le mot d'indice absolu indiceMot.
+     * Lève IllegalArgumentException si la trame est corrompue ; sans effet si non protégée.
+     */
+    static void verifierBloc(int[] trame, int indiceMot) {
+        verifierPlage(trame, indiceMot, indiceMot + 1);
+    }
+
+    /** Valide l'en-tête puis, une seule fois chacun, les blocs recouvrant les mots [debut, fin). */
+    static void verifierPlage(int[] trame, int debut, int fin) {
+        if (!estProtegee(trame)) return;
+        if (!controleCoherent(trame)) {
+            throw new IllegalArgumentException("Bloc de contrôle corrompu");
+        }
+        int finPayload = longueurUtile(trame);
+        int tailleEnTete = trame[finPayload];
+        int tailleBloc = trame[finPayload + 1];
+
+        Etat etat = ETAT.get();
+        if (etat.enTeteValide.get() != trame) {
+            if (crcEnTete(trame, tailleEnTete, finPayload, etat) != trame[finPayload + 2]) {
+                throw new IllegalArgumentException("Somme de contrôle invalide (en-tête)");
+            }
+            etat.enTeteValide = new WeakReference<>(trame);
+        }
+
+        debut = Math.max(debut, tailleEnTete);
+        fin = Math.min(fin, finPayload);
+        if (debut >= fin) return;
+        int dernier = (fin - 1 - tailleEnTete) / tailleBloc;
+        for (int b = (debut - tailleEnTete) / tailleBloc; b <= dernier; b++) {
+            int debutBloc = tailleEnTete + b * tailleBloc;
+            int finBloc = Math.min(debutBloc + tailleBloc, finPayload);
+            if (crc(trame, debutBloc, finBloc - debutBloc, etat) != trame[finPayload + 3 + b]) {
+                throw new IllegalArgumentException("Somme de contrôle invalide (bloc " + b + ")");
+            }
+        }
+    }
+
+    // Vérifie que le bloc de contrôle est lisible avant de s'en servir comme index
+    private static boolean controleCoherent(int[] trame) {
+        int nbBlocs = trame[trame.length - 1];
+        if (nbBlocs < 0 || nbBlocs + 4 > trame.length) return false;
+        int finPayload = trame.length - (nbBlocs + 4);
+        int tailleEnTete = trame[finPayload];
+        int tailleBloc = trame[finPayload + 1];
+        if (tailleEnTete < 2 || tailleEnTete > finPayload || tailleBloc <= 0) return false;
+        long attendu = ((long) (finPayload - tailleEnTete) + tailleBloc - 1) / tailleBloc;
+        return attendu == nbBlocs;
+    }
+
+    // CRC de l'en-tête [0, tailleEnTete) suivi des paramètres tailleEnTete et tailleBloc
+    private static int crcEnTete(int[] trame, int tailleEnTete, int finPayload, Etat etat) {
+        etat.crc.reset();
+        ajouter(etat.crc, trame, 0, tailleEnTete, etat.tampon);
+        ajouter(etat.crc, trame, finPayload, 2, etat.tampon);
+        return (int) etat.crc.getValue();
+    }
+
+    private static int crc(int[] src, int debut, int longueur, Etat etat) {
+        etat.crc.reset();
+        ajouter(etat.crc, src, debut, longueur, etat.tampon);
+        return (int) etat.crc.getValue();
+    }
+
+    // Alimente le CRC par tranches de la capacité du tampon
+    private static void ajouter(CRC32C crc, int[] src, int debut, int longueur, ByteBuffer tampon) {
+        int capacite = tampon.capacity() / 4;
+        for (int pos = debut, fin = debut + longueur; pos < fin; pos += capacite) {
+            int nb = Math.min(capacite, fin - pos);
+            tampon.clear();
+            tampon.asIntBuffer().put(src, pos, nb);
+            tampon.limit(nb * 4);
+            crc.update(tampon);
+        }
+    }
+}
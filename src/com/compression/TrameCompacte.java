@@ -0,0 +1,191 @@
+package com.compression;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Trame compacte pour petits tableaux, à la granularité de l'octet :
+ *   [tag 1 octet] [n en varint] [k en varint] [payload : n*k bits arrondis à l'octet]
+ * Le tag regroupe MAGIC (4 bits), VERSION (2 bits) et TYPE (2 bits).
+ *
+ * Le payload est un flux de bits continu (comme AVEC_CHEVAUCHEMENT), lu en petit-boutiste
+ * par fenêtres de 64 bits. Pour n = 8 et k = 10 : 13 octets au lieu de 32 (5 ints d'en-tête + 3).
+ */
+public final class TrameCompacte {
+    private static final int MAGIC = 0xB;
+    private static final int VERSION = 1;
+    private static final int TYPE = TypeCompression.AVEC_CHEVAUCHEMENT.ordinal();
+    private static final int TAG = (MAGIC << 4) | (VERSION << 2) | TYPE;
+
+    private final ByteBuffer octets;
+    private final int debut;
+    private final int debutPayload;
+    private final int taille;
+    private final int k;
+    private final int mask;
+
+    private TrameCompacte(ByteBuffer octets, int debut, int debutPayload, int taille, int k) {
+        this.octets = octets;
+        this.debut = debut;
+        this.debutPayload = debutPayload;
+        this.taille = taille;
+        this.k = k;
+        this.mask = Accesseurs.masque(k);
+    }
+
+    /** Nombre d'octets nécessaires pour compresser le tableau. */
+    public static int tailleOctets(int[] tableau) {
+        int k = largeur(tableau);
+        return 1 + tailleVarint(tableau.length) + tailleVarint(k) + (int) (((long) tableau.length * k + 7) / 8);
+    }
+
+    public static byte[] compresser(int[] tableau) {
+        byte[] sortie = new byte[tailleOctets(tableau)];
+        ecrire(tableau, ByteBuffer.wrap(sortie));
+        return sortie;
+    }
+
+    /** Écrit la trame compacte à la position courante du tampon, puis avance la position. */
+    public static void ecrire(int[] tableau, ByteBuffer dest) {
+        int k = largeur(tableau);
+        dest.put((byte) TAG);
+        ecrireVarint(dest, tableau.length);
+        ecrireVarint(dest, k);
+
+        // Accumulateur 64 bits : les octets complets sont vidés au fil de l'eau
+        long tampon = 0;
+        int nbBits = 0;
+        for (int val : tableau) {
+            tampon |= (val & 0xFFFFFFFFL) << nbBits;
+            nbBits += k;
+            while (nbBits >= 8) {
+                dest.put((byte) tampon);
+                tampon >>>= 8;
+                nbBits -= 8;
+            }
+        }
+        if (nbBits > 0) dest.put((byte) tampon);
+    }
+
+    public static TrameCompacte lire(byte[] trame) {
+        return lire(ByteBuffer.wrap(trame));
+    }
+
+    /**
+     * Lit l'en-tête à la position courante du tampon (sans la modifier).
+     * La trame renvoyée partage les octets du tampon.
+     */
+    public static TrameCompacte lire(ByteBuffer source) {
+        ByteBuffer octets = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int debut = octets.position();
+        if (!octets.hasRemaining()) throw new IllegalArgumentException("Format compact invalide (vide)");
+        int tag = octets.get() & 0xFF;
+        if ((tag >>> 4) != MAGIC) throw new IllegalArgumentException("Format compact invalide (MAGIC)");
+        if (((tag >>> 2) & 0x3) != VERSION) throw new IllegalArgumentException("Version non supportée");
+        if ((tag & 0x3) != TYPE) throw new IllegalArgumentException("Type de compression inattendu pour ce décompresseur");
+
+        int taille = lireVarint(octets);
+        int k = lireVarint(octets);
+        if (taille < 0 || k < 1 || k > 32) throw new IllegalArgumentException("En-tête compact invalide");
+        long octetsPayload = ((long) taille * k + 7) / 8;
+        if (octetsPayload > octets.remaining()) throw new IllegalArgumentException("Trame compacte tronquée");
+        return new TrameCompacte(octets, debut, octets.position(), taille, k);
+    }
+
+    public static int[] decompresser(byte[] trame) {
+        return lire(trame).decompresser();
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    public int getLargeurBits() {
+        return k;
+    }
+
+    /** Taille de l'en-tête en octets (tag + varints). */
+    public int getTailleEnTete() {
+        return debutPayload - debut;
+    }
+
+    /**
+     * Taille totale de la trame en octets (en-tête + payload).
+     * Pour parcourir des trames consécutives d'un même tampon :
+     * source.position(source.position() + lire(source).tailleOctets()).
+     */
+    public int tailleOctets() {
+        return getTailleEnTete() + (int) (((long) taille * k + 7) / 8);
+    }
+
+    /** Accès direct : une lecture 64 bits couvre toujours la valeur (k + 7 <= 39 bits). */
+    public int get(int i) {
+        if (i < 0 || i >= taille) throw new IndexOutOfBoundsException("Indice hors limites : " + i);
+        long bitPos = (long) i * k;
+        int index = debutPayload + (int) (bitPos >>> 3);
+        return (int) (lire64(index) >>> (bitPos & 7)) & mask;
+    }
+
+    public int[] decompresser() {
+        int[] resultat = new int[taille];
+        int index = debutPayload;
+        long tampon = 0;
+        int nbBits = 0;
+        for (int i = 0; i < taille; i++) {
+            if (nbBits < k) {
+                // Recharge : on complète le tampon avec autant d'octets entiers que possible
+                int nbOctets = (64 - nbBits) >>> 3;
+                long lu = lire64(index);
+                if (nbOctets < 8) lu &= (1L << (nbOctets * 8)) - 1;
+                tampon |= lu << nbBits;
+                index += nbOctets;
+                nbBits += nbOctets * 8;
+            }
+            resultat[i] = (int) tampon & mask;
+            tampon >>>= k;
+            nbBits -= k;
+        }
+        return resultat;
+    }
+
+    // Lecture petit-boutiste de 8 octets ; en fin de tampon, les octets absents valent 0
+    private long lire64(int index) {
+        if (index + 8 <= octets.limit()) return octets.getLong(index);
+        long w = 0;
+        for (int j = 0; index + j < octets.limit() && j < 8; j++) {
+            w |= (octets.get(index + j) & 0xFFL) << (8 * j);
+        }
+        return w;
+    }
+
+    private static int largeur(int[] tableau) {
+        int ou = 0;
+        for (int val : tableau) ou |= val;
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(ou));
+    }
+
+    private static int tailleVarint(int v) {
+        int n = 1;
+        while ((v >>>= 7) != 0) n++;
+        return n;
+    }
+
+    private static void ecrireVarint(ByteBuffer dest, int v) {
+        while ((v & ~0x7F) != 0) {
+            dest.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        dest.put((byte) v);
+    }
+
+    private static int lireVarint(ByteBuffer source) {
+        int v = 0;
+        for (int decalage = 0; decalage < 35; decalage += 7) {
+            if (!source.hasRemaining()) throw new IllegalArgumentException("Trame compacte tronquée");
+            int b = source.get();
+            v |= (b & 0x7F) << decalage;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IllegalArgumentException("Varint invalide");
+    }
+}
@@ -6,5 +6,6 @@ package com.compression;
 public enum TypeCompression {
     AVEC_CHEVAUCHEMENT,
     SANS_CHEVAUCHEMENT,
-    AVEC_DEBORDEMENT
+    AVEC_DEBORDEMENT,
+    BITMAP
 }
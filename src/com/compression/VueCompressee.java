@@ -0,0 +1,47 @@
+package com.compression;
+
+/**
+ * Vue en lecture seule sur une trame compressée :
+ * accès direct au i-ème élément sans décompresser la trame.
+ * Obtenue via Frames.view(int[]).
+ *
+ * L'accesseur spécialisé est lié à la création de la vue ; une trame protégée
+ * par CRC32C garde l'accès générique qui valide le bloc lu.
+ */
+public final class VueCompressee {
+    private final int[] trame;
+    private final Decodeur decodeur;
+    private final Accesseur accesseur;
+    private final int taille;
+
+    VueCompressee(int[] trame, Decodeur decodeur) {
+        this.trame = trame;
+        this.decodeur = decodeur;
+        this.taille = decodeur.taille(trame);
+        this.accesseur = SommeControle.estProtegee(trame)
+                ? i -> decodeur.get(trame, i)
+                : decodeur.accesseur(trame);
+    }
+
+    public int get(int i) {
+        if (i < 0 || i >= taille) throw new IndexOutOfBoundsException("Indice hors limites : " + i);
+        return accesseur.get(i);
+    }
+
+    /** Accesseur lié à la trame, sans contrôle d'indice : à réserver aux boucles chaudes. */
+    public Accesseur accesseur() {
+        return accesseur;
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    public int[] decompresser() {
+        return decodeur.decompresser(trame);
+    }
+
+    public int[] getTrame() {
+        return trame;
+    }
+}